@@ -0,0 +1,133 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.benchmarks;
+
+import java.awt.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.*;
+import org.kruijff.utilities.swing.*;
+import org.kruijff.utilities.swing.exceptions.*;
+import org.kruijff.utilities.swing.indexes.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures one attempt of the child lookups on synthetic trees, with the
+ * {@code DefaultChilderenFetcher} and the name and index matchers. A miss
+ * includes the cost of the {@code ChildNotFoundException}.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ChildLookupBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int nodes;
+
+    @Param({"2", "16", "1024"})
+    public int fanOut;
+
+    private SyntheticTree tree;
+    private SwingUtil util;
+    private Map<String, Class<?>> batch;
+
+    @Setup
+    public void setup() {
+        tree = new SyntheticTree(nodes, fanOut);
+        // The miss benchmarks measure the lookup, not the tree dump of a failure.
+        util = new SwingUtil(new SingleAttemptWaiter()).withTreeDumper(null);
+        batch = new LinkedHashMap<>();
+        batch.put("label-" + SyntheticTree.LABEL_EVERY, JLabel.class);
+        batch.put(SyntheticTree.TARGET, JLabel.class);
+    }
+
+    @Benchmark
+    public JLabel namedHit() {
+        return util.fetchChildNamed(tree.root(), SyntheticTree.TARGET, JLabel.class);
+    }
+
+    @Benchmark
+    public Object namedMiss() {
+        try {
+            return util.fetchChildNamed(tree.root(), SyntheticTree.ABSENT, JLabel.class);
+        } catch (ChildNotFoundException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public JLabel indexedHit() {
+        return util.fetchChildIndexed(tree.root(), tree.labels() - 1, JLabel.class);
+    }
+
+    @Benchmark
+    public Object indexedMiss() {
+        try {
+            return util.fetchChildIndexed(tree.root(), tree.labels(), JLabel.class);
+        } catch (ChildNotFoundException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public NamedChildren batchHit() {
+        return util.fetchChildrenNamed(tree.root(), batch);
+    }
+
+    @Benchmark
+    public JLabel namedHitWithComponentIndex(Indexed indexed) {
+        return indexed.util.fetchChildNamed(tree.root(), SyntheticTree.TARGET, JLabel.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Indexed {
+
+        private ComponentIndex index;
+        private Container root;
+        private SwingUtil util;
+
+        @Setup
+        public void setup(ChildLookupBenchmark benchmark) {
+            root = benchmark.tree.root();
+            index = new ComponentIndex().add(root);
+            util = new SwingUtil(new SingleAttemptWaiter(), index).withTreeDumper(null);
+        }
+
+        @TearDown
+        public void teardown() {
+            index.remove(root);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.benchmarks;
+
+import java.awt.*;
+import java.util.*;
+import javax.swing.*;
+
+/**
+ * Builds component trees that are never shown. The tree is filled breadth
+ * first, so the fan-out determines the depth. Most nodes are bare lightweight
+ * containers; every {@value #LABEL_EVERY}th node is a named {@code JLabel},
+ * and the last node is the label named {@value #TARGET}.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class SyntheticTree {
+
+    public static final String TARGET = "target";
+    public static final String ABSENT = "absent";
+    public static final int LABEL_EVERY = 97;
+
+    private final Container root;
+    private final int labels;
+
+    public SyntheticTree(int nodes, int fanOut) {
+        root = new Node();
+        Deque<Container> parents = new ArrayDeque<>();
+        parents.add(root);
+        int count = 0;
+        for (int i = 1; i < nodes; ++i) {
+            Container parent = parents.peek();
+            Container child = i == nodes - 1 ? label(TARGET)
+                              : i % LABEL_EVERY == 0 ? label("label-" + i)
+                                : new Node();
+            if (child instanceof JLabel)
+                ++count;
+            parent.add(child);
+            parents.add(child);
+            if (parent.getComponentCount() == fanOut)
+                parents.poll();
+        }
+        labels = count;
+    }
+
+    private static JLabel label(String name) {
+        JLabel label = new JLabel(name);
+        label.setName(name);
+        return label;
+    }
+
+    public Container root() {
+        return root;
+    }
+
+    /**
+     * Returns the number of labels in the tree.
+     */
+    public int labels() {
+        return labels;
+    }
+
+    private static class Node
+            extends Container {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
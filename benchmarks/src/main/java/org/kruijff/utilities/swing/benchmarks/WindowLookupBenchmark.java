@@ -0,0 +1,118 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.benchmarks;
+
+import java.awt.*;
+import java.util.concurrent.*;
+import javax.swing.*;
+import org.kruijff.utilities.swing.*;
+import org.kruijff.utilities.swing.exceptions.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures one attempt of the window lookups, with the
+ * {@code WindowFetcher} and the title and index matchers, on a frame that
+ * owns many dialogs. Every {@value #NESTING}th dialog owns a dialog of its
+ * own. The windows are made displayable but never shown; this needs a display,
+ * for example Xvfb.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WindowLookupBenchmark {
+
+    private static final int NESTING = 10;
+
+    @Param({"10", "100", "1000"})
+    public int dialogs;
+
+    private JFrame frame;
+    private SwingUtil util;
+
+    @Setup
+    public void setup() {
+        if (GraphicsEnvironment.isHeadless())
+            throw new IllegalStateException("Window lookups need a display, run under Xvfb");
+        SwingThreads.run(() -> {
+            frame = new JFrame();
+            frame.pack();
+            for (int i = 0; i < dialogs; ++i) {
+                JDialog dialog = createDialog(frame, "Dialog " + i);
+                if (i % NESTING == 0)
+                    createDialog(dialog, "Nested " + i);
+            }
+        });
+        util = new SwingUtil(new SingleAttemptWaiter()).withTreeDumper(null);
+    }
+
+    private static JDialog createDialog(Window owner, String title) {
+        JDialog dialog = new JDialog(owner, title);
+        dialog.pack();
+        return dialog;
+    }
+
+    @TearDown
+    public void teardown() {
+        SwingThreads.run(() -> frame.dispose());
+    }
+
+    @Benchmark
+    public JDialog titledHit() {
+        return util.fetchWindowTitled(frame, "Dialog " + (dialogs - 1), JDialog.class);
+    }
+
+    @Benchmark
+    public Object titledMiss() {
+        try {
+            return util.fetchWindowTitled(frame, "Absent", JDialog.class);
+        } catch (ChildNotFoundException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public JDialog indexedHit() {
+        return util.fetchWindowIndexed(frame, dialogs - 1, JDialog.class);
+    }
+
+    @Benchmark
+    public Object indexedMiss() {
+        try {
+            return util.fetchWindowIndexed(frame, dialogs + dialogs / NESTING + 1, JDialog.class);
+        } catch (ChildNotFoundException ex) {
+            return ex;
+        }
+    }
+}
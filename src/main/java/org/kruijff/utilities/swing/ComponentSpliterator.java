@@ -0,0 +1,174 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing;
+
+import java.awt.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Walks the descendants of a component lazily and yields those that match.
+ * The walk starts from the children of the parent, which are fetched on the
+ * first call. Before the walk of a part has started, the part can be split
+ * into the subtrees of its first and second half of the children; a part with
+ * a single child splits the children of that child. Once split, matching is
+ * done without a {@link MatchContext}, as the parts may run concurrently, so
+ * matchers that require one are never split.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+class ComponentSpliterator<T extends Component>
+        implements Spliterator<T> {
+
+    private static final int CHARACTERISTICS = ORDERED | DISTINCT | NONNULL;
+
+    private final SwingUtil.Fetcher<?> fetcher;
+    private final SwingUtil.Matcher<T> matcher;
+    private MatchContext context;
+    private Component parent;
+    private Component head;
+    private Component[] roots;
+    private int from;
+    private int to;
+    private Traversal traversal;
+    private boolean walking;
+
+    ComponentSpliterator(SwingUtil.Fetcher<?> fetcher, SwingUtil.Matcher<T> matcher, Component parent) {
+        this.fetcher = fetcher;
+        this.matcher = matcher;
+        this.context = new MatchContext();
+        this.parent = parent;
+    }
+
+    private ComponentSpliterator(ComponentSpliterator<T> other, Component head, Component[] roots, int from, int to) {
+        this.fetcher = other.fetcher;
+        this.matcher = other.matcher;
+        this.context = null;
+        this.head = head;
+        this.roots = roots;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Component found = advance();
+        if (found == null)
+            return false;
+        @SuppressWarnings("unchecked")
+        T t = (T) found;
+        action.accept(t);
+        return true;
+    }
+
+    private Component advance() {
+        expand();
+        if (head != null) {
+            Component c = head;
+            head = null;
+            if (matches(c))
+                return c;
+        }
+        while (true) {
+            if (walking) {
+                for (Component c = traversal.next(); c != null; c = traversal.next())
+                    if (matches(c))
+                        return c;
+                walking = false;
+            }
+            if (from == to) {
+                if (traversal != null)
+                    traversal.clear();
+                return null;
+            }
+            Component root = roots[from++];
+            if (root == null || root instanceof Window && !root.isDisplayable())
+                continue;
+            if (traversal == null)
+                traversal = new Traversal(fetcher);
+            traversal.reset(root);
+            walking = true;
+            if (matches(root))
+                return root;
+        }
+    }
+
+    private boolean matches(Component c) {
+        return context != null ? matcher.childMatches(c, context) : matcher.childMatches(c);
+    }
+
+    private void expand() {
+        if (parent == null)
+            return;
+        roots = fetcher.getChilderen(parent);
+        from = 0;
+        to = roots.length;
+        parent = null;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (matcher.requiresContext())
+            return null;
+        expand();
+        if (walking || head != null && to - from < 2)
+            return null;
+        if (head == null && to - from == 1) {
+            Component root = roots[from];
+            if (root == null || root instanceof Window && !root.isDisplayable())
+                return null;
+            Component[] children = fetcher.getChilderen(root);
+            if (children.length < 2)
+                return null;
+            head = root;
+            roots = children;
+            from = 0;
+            to = children.length;
+        }
+        if (to - from < 2)
+            return null;
+        int mid = (from + to) >>> 1;
+        ComponentSpliterator<T> prefix = new ComponentSpliterator<>(this, head, roots, from, mid);
+        context = null;
+        head = null;
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+}
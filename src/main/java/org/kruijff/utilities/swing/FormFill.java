@@ -0,0 +1,191 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.function.*;
+import javax.swing.*;
+import javax.swing.text.*;
+
+/**
+ * Collects input for named components, then finds all of them in one walk of
+ * the tree and applies the input in one task on the event dispatch thread, in
+ * the order it was given. Created by {@link SwingUtil#fill(Component)}:
+ * <pre>
+ * util.fill(frame).set("emailField", "x").select("country", 3).click("submit").applyAndWait();
+ * </pre>
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class FormFill {
+
+    private final SwingUtil util;
+    private final Component parent;
+    private final Map<String, Class<?>> types = new LinkedHashMap<>();
+    private final List<Step> steps = new ArrayList<>();
+
+    FormFill(SwingUtil util, Component parent) {
+        this.util = util;
+        this.parent = parent;
+    }
+
+    /**
+     * Sets the text of a text component.
+     */
+    public FormFill set(String name, String text) {
+        return add(name, JTextComponent.class, c -> ((JTextComponent) c).setText(text));
+    }
+
+    /**
+     * Selects the index in a combo box, list or tabbed pane.
+     */
+    public FormFill select(String name, int index) {
+        return add(name, JComponent.class, c -> {
+            if (c instanceof JComboBox)
+                ((JComboBox<?>) c).setSelectedIndex(index);
+            else if (c instanceof JList)
+                ((JList<?>) c).setSelectedIndex(index);
+            else
+                ((JTabbedPane) c).setSelectedIndex(index);
+        }, JComboBox.class, JList.class, JTabbedPane.class);
+    }
+
+    /**
+     * Selects the item in a combo box.
+     */
+    public FormFill select(String name, Object item) {
+        return add(name, JComboBox.class, c -> ((JComboBox<?>) c).setSelectedItem(item));
+    }
+
+    /**
+     * Sets the selected state of a check box, radio button or toggle button.
+     */
+    public FormFill check(String name, boolean selected) {
+        return add(name, AbstractButton.class, c -> ((AbstractButton) c).setSelected(selected));
+    }
+
+    public FormFill click(String name) {
+        return add(name, AbstractButton.class, c -> ((AbstractButton) c).doClick(0));
+    }
+
+    private FormFill add(String name, Class<?> type, Consumer<Component> action) {
+        return add(name, type, action, type);
+    }
+
+    /**
+     * @param accepted the types the found component must have one of, when
+     * the type to search for is wider.
+     */
+    private FormFill add(String name, Class<?> type, Consumer<Component> action, Class<?>... accepted) {
+        types.merge(name, type, (a, b) -> a.isAssignableFrom(b) ? b
+                                          : b.isAssignableFrom(a) ? a
+                                            : conflict(name, a, b));
+        steps.add(new Step(name, action, accepted));
+        return this;
+    }
+
+    private static Class<?> conflict(String name, Class<?> a, Class<?> b) {
+        throw new IllegalArgumentException(name + " cannot be both " + a.getSimpleName() + " and " + b.getSimpleName());
+    }
+
+    /**
+     * Finds the components and posts the input to the event dispatch thread.
+     *
+     * @throws org.kruijff.utilities.swing.exceptions.ChildNotFoundException
+     * listing the names that were not found in time.
+     * @throws IllegalArgumentException when a found component does not accept
+     * its input, before any input is posted.
+     */
+    public void apply() {
+        NamedChildren children = util.fetchChildrenNamed(parent, types);
+        validate(children);
+        SwingUtilities.invokeLater(() -> run(children));
+    }
+
+    /**
+     * Finds the components, applies the input and returns once the listeners
+     * of the components have run. Follow with {@link SwingUtil#awaitIdle} to
+     * also wait for the tasks the listeners posted.
+     *
+     * @throws org.kruijff.utilities.swing.exceptions.ChildNotFoundException
+     * listing the names that were not found in time.
+     * @throws IllegalArgumentException when a found component does not accept
+     * its input, before any input is applied.
+     */
+    public void applyAndWait() {
+        NamedChildren children = util.fetchChildrenNamed(parent, types);
+        validate(children);
+        SwingThreads.run(() -> run(children));
+    }
+
+    /**
+     * Checks every step before the first runs, so that a form is not left
+     * half filled.
+     */
+    private void validate(NamedChildren children) {
+        for (Step step : steps)
+            if (!step.accepts(children.get(step.name)))
+                throw new IllegalArgumentException(step.name + " is not a " + step.describe());
+    }
+
+    private void run(NamedChildren children) {
+        for (Step step : steps)
+            step.action.accept(children.get(step.name));
+    }
+
+    private static class Step {
+
+        private final String name;
+        private final Consumer<Component> action;
+        private final Class<?>[] accepted;
+
+        private Step(String name, Consumer<Component> action, Class<?>[] accepted) {
+            this.name = name;
+            this.action = action;
+            this.accepted = accepted;
+        }
+
+        private boolean accepts(Component c) {
+            for (Class<?> type : accepted)
+                if (type.isInstance(c))
+                    return true;
+            return false;
+        }
+
+        private String describe() {
+            StringBuilder names = new StringBuilder(accepted[0].getSimpleName());
+            for (int i = 1; i < accepted.length; ++i)
+                names.append(i < accepted.length - 1 ? ", " : " or ").append(accepted[i].getSimpleName());
+            return names.toString();
+        }
+    }
+}
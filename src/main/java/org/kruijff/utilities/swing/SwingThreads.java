@@ -0,0 +1,173 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing;
+
+import java.awt.*;
+import java.lang.reflect.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import javax.swing.*;
+import javax.swing.Timer;
+
+/**
+ * Runs tasks on the event dispatch thread and waits for their outcome.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public final class SwingThreads {
+
+    private static final long TIMER_POLL_INTERVAL = 1;
+
+    private SwingThreads() {
+    }
+
+    public static void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Calls the task directly when on the event dispatch thread, and through
+     * {@link SwingUtilities#invokeAndWait} otherwise.
+     */
+    public static <T> T call(Supplier<T> task) {
+        if (SwingUtilities.isEventDispatchThread())
+            return task.get();
+
+        Object[] result = new Object[1];
+        try {
+            SwingUtilities.invokeAndWait(() -> result[0] = task.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+        @SuppressWarnings("unchecked")
+        T t = (T) result[0];
+        return t;
+    }
+
+    /**
+     * Like {@link #call(Supplier)}, but gives up when the event dispatch
+     * thread did not start the task within the timeout. A task that started
+     * in time is waited for until it completes.
+     *
+     * @throws TimeoutException when the task did not start in time; it will
+     * not run anymore.
+     */
+    public static <T> T call(Supplier<T> task, long timeout, TimeUnit unit)
+            throws TimeoutException {
+        if (SwingUtilities.isEventDispatchThread())
+            return task.get();
+
+        FutureTask<T> future = new FutureTask<>(task::get);
+        SwingUtilities.invokeLater(future);
+        try {
+            try {
+                return future.get(timeout, unit);
+            } catch (TimeoutException ex) {
+                if (future.cancel(false))
+                    throw ex;
+                return future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Waits until the event queue is drained and the specified timers are
+     * stopped. Each check runs on the event dispatch thread behind the events
+     * that were queued before it, and finds the queue empty only when these
+     * events, and the events they posted in turn, have been dispatched. Each
+     * check looks the queue up on the event dispatch thread, so it peeks the
+     * queue that was last pushed with {@link EventQueue#push}, even when that
+     * happened while waiting.
+     * <p>
+     * A check waits for the event dispatch thread, so a task that keeps the
+     * thread busy can delay the return beyond the timeout.
+     *
+     * @return false if the queue was not idle within the timeout.
+     * @throws IllegalStateException when called on the event dispatch thread.
+     */
+    public static boolean awaitIdle(long timeout, TimeUnit unit, Timer... timers) {
+        if (SwingUtilities.isEventDispatchThread())
+            throw new IllegalStateException("Cannot wait for the event dispatch thread on the event dispatch thread");
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            Idleness idleness = call(() -> Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent() != null ? Idleness.BUSY
+                                           : isRunning(timers) ? Idleness.TIMERS_RUNNING
+                                             : Idleness.IDLE);
+            if (idleness == Idleness.IDLE)
+                return true;
+            if (System.nanoTime() - deadline >= 0)
+                return false;
+            if (idleness == Idleness.TIMERS_RUNNING)
+                sleep(TIMER_POLL_INTERVAL);
+        }
+    }
+
+    private static boolean isRunning(Timer[] timers) {
+        for (Timer timer : timers)
+            if (timer.isRunning())
+                return true;
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private enum Idleness {
+        BUSY, TIMERS_RUNNING, IDLE
+    }
+}
@@ -30,25 +30,47 @@
 package org.kruijff.utilities.swing;
 
 import java.awt.*;
+import java.util.*;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import java.util.stream.*;
 import javax.swing.*;
+import javax.swing.table.*;
+import javax.swing.tree.*;
 import org.awaitility.*;
-import org.awaitility.core.*;
-import org.hamcrest.core.*;
+import org.awaitility.core.ConditionFactory;
+import org.awaitility.core.ConditionTimeoutException;
+import org.kruijff.utilities.swing.cells.*;
 import org.kruijff.utilities.swing.exceptions.*;
 import org.kruijff.utilities.swing.fetchers.*;
+import org.kruijff.utilities.swing.indexes.*;
 import org.kruijff.utilities.swing.matchers.*;
+import org.kruijff.utilities.swing.metrics.*;
+import org.kruijff.utilities.swing.selectors.*;
+import org.kruijff.utilities.swing.states.*;
+import org.kruijff.utilities.swing.waiters.*;
 
 /**
  * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
  */
 public class SwingUtil {
 
-    private final ConditionFactory await;
+    private static final String NAME = "name";
+    private static final String TEXT = "text";
+    private static final String TITLE = "title";
+    private static final AtomicLong LOOKUP_IDS = new AtomicLong();
 
-    private static <T> IsNot<T> isNotNull() {
-        return new IsNot<>(new IsNull<>());
-    }
+    private final Waiter waiter;
+    private final ComponentIndex index;
+    private final WindowRegistry windows;
+    private final PathCache paths;
+    private final TypeSummary summary;
+    private final boolean excludeMenus;
+    private final TreeDumper dumper;
+    private final long edtTaskTime;
+    private final List<LookupListener> listeners;
 
     public SwingUtil(long timeout) {
         this(timeout, TimeUnit.MILLISECONDS);
@@ -58,28 +80,224 @@ public class SwingUtil {
         this(Awaitility.await().atMost(timeout, unit));
     }
 
+    public SwingUtil(long timeout, TimeUnit unit, PollStrategy strategy) {
+        this(new PollingWaiter(timeout, unit, strategy));
+    }
+
     public SwingUtil(ConditionFactory await) {
-        this.await = await;
+        this(new AwaitilityWaiter(await));
+    }
+
+    public SwingUtil(Waiter waiter) {
+        this(waiter, null);
+    }
+
+    /**
+     * @param index used for name lookups below the roots it covers.
+     */
+    public SwingUtil(Waiter waiter, ComponentIndex index) {
+        this(waiter, index, null, null, null, false, null, 0, Collections.emptyList());
+    }
+
+    private SwingUtil(Waiter waiter, ComponentIndex index, WindowRegistry windows, PathCache paths,
+                      TypeSummary summary, boolean excludeMenus, TreeDumper dumper, long edtTaskTime,
+                      List<LookupListener> listeners) {
+        this.waiter = waiter;
+        this.index = index;
+        this.windows = windows;
+        this.paths = paths;
+        this.summary = summary;
+        this.excludeMenus = excludeMenus;
+        this.dumper = dumper;
+        this.edtTaskTime = edtTaskTime;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Returns a copy that reads the component tree only on the event dispatch
+     * thread. Each attempt walks the tree in tasks on the event dispatch
+     * thread, and each task runs at most the specified time before it hands
+     * the thread back and the walk continues in the next task. When the
+     * number of children of a container on the path of the walk changed
+     * between two tasks, the attempt fails and the next attempt walks the
+     * tree from the start.
+     */
+    public SwingUtil confinedToEventDispatchThread(long maxTaskTime, TimeUnit unit) {
+        if (maxTaskTime <= 0)
+            throw new IllegalArgumentException("maxTaskTime must be positive");
+        return new SwingUtil(waiter, index, windows, paths, summary, excludeMenus, dumper, unit.toNanos(maxTaskTime), listeners);
+    }
+
+    /**
+     * Returns a copy that spaces its attempts according to the specified
+     * strategy, for example for a single call:
+     * {@code util.withPollStrategy(strategy).fetchChildNamed(frame, "name", JLabel.class)}.
+     *
+     * A waiter that attempts only after the tree changed, such as
+     * {@link org.kruijff.utilities.swing.waiters.AwtEventWaiter}, ignores the
+     * strategy.
+     *
+     * @throws UnsupportedOperationException when the waiter of this instance
+     * does not support poll strategies.
+     */
+    public SwingUtil withPollStrategy(PollStrategy strategy) {
+        return new SwingUtil(waiter.withPollStrategy(strategy), index, windows, paths, summary, excludeMenus, dumper, edtTaskTime, listeners);
+    }
+
+    /**
+     * Returns a copy that reports the statistics of every fetch to the
+     * specified listener, in addition to the listeners of this instance.
+     */
+    public SwingUtil withListener(LookupListener listener) {
+        List<LookupListener> list = new ArrayList<>(listeners);
+        list.add(listener);
+        return new SwingUtil(waiter, index, windows, paths, summary, excludeMenus, dumper, edtTaskTime, Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Returns a copy that looks windows up in the specified registry instead
+     * of walking the owned windows. Indexed window lookups then count the
+     * windows in the order they were opened.
+     */
+    public SwingUtil withWindowRegistry(WindowRegistry windows) {
+        return new SwingUtil(waiter, index, windows, paths, summary, excludeMenus, dumper, edtTaskTime, listeners);
+    }
+
+    /**
+     * Returns a copy that attaches a dump of the tree made by the specified
+     * dumper to the ChildNotFoundException of a failed lookup, or no dump
+     * when null. By default no dump is made, because a dump reads the tree on
+     * the event dispatch thread after each failed lookup.
+     */
+    public SwingUtil withTreeDumper(TreeDumper dumper) {
+        return new SwingUtil(waiter, index, windows, paths, summary, excludeMenus, dumper, edtTaskTime, listeners);
+    }
+
+    /**
+     * Returns a copy that remembers where name and title lookups found their
+     * component, and checks that path first the next time. A lookup then
+     * returns the component it found before for as long as it matches, even
+     * if a matching component was added before it.
+     */
+    public SwingUtil withPathCache(PathCache paths) {
+        return new SwingUtil(waiter, index, windows, paths, summary, excludeMenus, dumper, edtTaskTime, listeners);
+    }
+
+    /**
+     * Returns a copy whose child lookups skip the subtrees that the specified
+     * summary rules out for the requested type.
+     */
+    public SwingUtil withTypeSummary(TypeSummary summary) {
+        return new SwingUtil(waiter, index, windows, paths, summary, excludeMenus, dumper, edtTaskTime, listeners);
+    }
+
+    /**
+     * Returns a copy whose child lookups do not search the items of menus,
+     * so that they pass menus without touching their popup menus. Menu items
+     * can then be fetched with {@link #fetchMenuItem}.
+     */
+    public SwingUtil excludingMenus() {
+        return new SwingUtil(waiter, index, windows, paths, summary, true, dumper, edtTaskTime, listeners);
     }
 
     public <T extends Window> T fetchWindowTitled(Window parent, String title, Class<T> type) {
-        try {
-            Searcher<T> searcher = new Searcher<>(new WindowFetcher<>(), new TitleMatcher<>(title, type));
-            return await.until(() -> searcher.searchChilderen(parent), isNotNull());
-        } catch (ConditionTimeoutException ex) {
-            throw new ChildNotFoundException(title, ex);
-        }
+        Lookup lookup = new Lookup("fetchWindowTitled", TitleMatcher.class, title, parent);
+        return fetch(lookup, windowTitled(lookup, parent, title, type), TreeProperties.changesOf(parent, TITLE),
+                     ex -> new ChildNotFoundException(title, ex));
+    }
+
+    /**
+     * Like {@link #fetchWindowTitled}, but returns at once. Waiters that
+     * support it run the attempts of all pending lookups on one shared thread.
+     * Cancelling the future stops the attempts.
+     *
+     * @return a future that completes with a ChildNotFoundException when no
+     * window is found in time.
+     */
+    public <T extends Window> CompletableFuture<T> fetchWindowTitledAsync(Window parent, String title, Class<T> type) {
+        Lookup lookup = new Lookup("fetchWindowTitledAsync", TitleMatcher.class, title, parent);
+        return fetchAsync(lookup, windowTitled(lookup, parent, title, type), TreeProperties.changesOf(parent, TITLE),
+                          ex -> new ChildNotFoundException(title, ex));
+    }
+
+    private <T extends Window> Supplier<T> windowTitled(Lookup lookup, Window parent, String title, Class<T> type) {
+        if (windows != null)
+            return () -> first(windows.titled(parent, title, type));
+        Searcher<T> searcher = new Searcher<>(new WindowFetcher<>(), new TitleMatcher<>(title, type), paths, null);
+        return () -> attempt(lookup, searcher, parent);
     }
 
     public <T extends Component> T fetchWindowIndexed(Window parent, int index, Class<T> type) {
-        try {
-            return await.until(() -> {
-                Searcher<T> searcher = new Searcher<>(new WindowFetcher<>(), new IndexMatcher<>(index, type));
-                return searcher.searchChilderen(parent);
-            }, isNotNull());
-        } catch (ConditionTimeoutException ex) {
-            throw new ChildNotFoundException(index, ex);
+        Lookup lookup = new Lookup("fetchWindowIndexed", IndexMatcher.class, index, parent);
+        if (windows != null && Window.class.isAssignableFrom(type))
+            return fetch(lookup, () -> {
+                List<? extends Component> owned = windows.owned(parent, type.asSubclass(Window.class));
+                return owned.size() > index ? type.cast(owned.get(index)) : null;
+            }, ex -> new ChildNotFoundException(index, ex));
+        Searcher<T> searcher = new Searcher<>(new WindowFetcher<>(), new IndexMatcher<>(index, type), null, null);
+        return fetch(lookup, () -> attempt(lookup, searcher, parent), ex -> new ChildNotFoundException(index, ex));
+    }
+
+    private static <T> T first(List<T> list) {
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * Fetches the menu item at the end of the path of menu texts, for example
+     * {@code fetchMenuItem(frame, "File", "Export", "PDF")}. The first menu is
+     * looked up without searching the items of any menu, and each next level
+     * only among the items of the menu before it.
+     */
+    public JMenuItem fetchMenuItem(Component parent, String... path) {
+        if (path.length == 0)
+            throw new IllegalArgumentException("path must not be empty");
+        String target = String.join(" > ", path);
+        Lookup lookup = new Lookup("fetchMenuItem", TextMatcher.class, target, parent);
+        Class<? extends JMenuItem> type = path.length == 1 ? JMenuItem.class : JMenu.class;
+        Searcher<? extends JMenuItem> searcher = menuSearcher(path[0], type);
+        AtomicInteger level = new AtomicInteger();
+        return fetch(lookup, () -> {
+            level.set(0);
+            JMenuItem item = attempt(lookup, searcher, parent);
+            return item == null ? null : confine(() -> followMenuPath(item, path, level));
+        }, TreeProperties.changesOf(parent, TEXT), ex -> new ChildNotFoundException(path, level.get(), ex));
+    }
+
+    private static <T extends JMenuItem> Searcher<T> menuSearcher(String text, Class<T> type) {
+        return new Searcher<>(new ChilderenWithoutMenusFetcher<>(), new TextMatcher<>(text, type), null, null);
+    }
+
+    /**
+     * Follows the path from its first menu and keeps the level it got to, so
+     * that a failed lookup can report where the path broke off.
+     */
+    private static JMenuItem followMenuPath(JMenuItem first, String[] path, AtomicInteger level) {
+        JMenuItem item = first;
+        for (int i = 1; i < path.length && item != null; ++i) {
+            level.set(i);
+            item = menuItem((JMenu) item, path[i], i == path.length - 1 ? JMenuItem.class : JMenu.class);
         }
+        return item;
+    }
+
+    private static JMenuItem menuItem(JMenu menu, String text, Class<? extends JMenuItem> type) {
+        for (int i = 0, n = menu.getMenuComponentCount(); i < n; ++i) {
+            Component c = menu.getMenuComponent(i);
+            if (type.isInstance(c) && text.equals(((JMenuItem) c).getText()))
+                return (JMenuItem) c;
+        }
+        return null;
+    }
+
+    private static boolean isMenuItem(Component c) {
+        for (Component node = c.getParent(); node != null; node = node.getParent())
+            if (node instanceof JPopupMenu && ((JPopupMenu) node).getInvoker() instanceof JMenu)
+                return true;
+        return false;
+    }
+
+    private <T extends Component> IndexedFetcher<T> childrenFetcher() {
+        return excludeMenus ? new ChilderenWithoutMenusFetcher<>() : new DefaultChilderenFetcher<>();
     }
 
     public void clickButton(Component parent, String name) {
@@ -87,63 +305,865 @@ public class SwingUtil {
         SwingUtilities.invokeLater(() -> button.doClick());
     }
 
-    public <T extends Component> T fetchChildNamed(Component parent, String name, Class<T> type) {
+    /**
+     * Starts a batch of input for the named children of the parent, which
+     * are found in one walk and filled in one task on the event dispatch
+     * thread.
+     */
+    public FormFill fill(Component parent) {
+        return new FormFill(this, parent);
+    }
+
+    /**
+     * Clicks the button on the event dispatch thread and returns once its
+     * listeners have run. Follow with {@link #awaitIdle} to also wait for the
+     * tasks the listeners posted.
+     */
+    public void clickButtonAndWait(Component parent, String name) {
+        AbstractButton button = fetchChildNamed(parent, name, AbstractButton.class);
+        SwingThreads.run(() -> button.doClick(0));
+    }
+
+    /**
+     * Waits until the event queue is drained and the specified timers are
+     * stopped.
+     *
+     * @throws ConditionTimeoutException when the queue was not idle in time.
+     * @see SwingThreads#awaitIdle
+     */
+    public void awaitIdle(long timeout, TimeUnit unit, javax.swing.Timer... timers) {
+        if (!SwingThreads.awaitIdle(timeout, unit, timers))
+            throw new ConditionTimeoutException("Event queue was not idle within " + timeout + " " + unit);
+    }
+
+    /**
+     * Waits until the component reaches the state, for example
+     * {@code util.awaitState(label, States.text("Done"))}. The state is
+     * checked on the event dispatch thread, once at the start and then only
+     * after the component reported a change that concerns the state. The
+     * listeners are removed when the wait finishes.
+     *
+     * @return the component.
+     * @throws ConditionTimeoutException when the state was not reached in time.
+     */
+    public <C extends Component> C awaitState(C component, State<? super C> state) {
+        StateCheck<C> check = new StateCheck<>(component, state);
+        Runnable unsubscribe = state.changesOf(component).subscribe(check::changed);
         try {
-            Searcher<T> searcher = new Searcher<>(new DefaultChilderenFetcher<>(), new NameMatcher<>(name, type));
-            return await.until(() -> searcher.searchChilderen(parent), isNotNull());
+            return waiter.until(check, check);
         } catch (ConditionTimeoutException ex) {
-            throw new ChildNotFoundException(name);
+            String name = component.getName() == null ? "" : " '" + component.getName() + "'";
+            throw new ConditionTimeoutException(component.getClass().getSimpleName() + name + " did not reach " + state, ex);
+        } finally {
+            unsubscribe.run();
         }
     }
 
+    /**
+     * Waits until the predicate holds for the component, checking it after
+     * each change of a bound property of the component.
+     *
+     * @see #awaitState(Component, State)
+     */
+    public <C extends Component> C awaitState(C component, Predicate<? super C> predicate) {
+        return awaitState(component, States.of(predicate));
+    }
+
+    public <T extends Component> T fetchChildNamed(Component parent, String name, Class<T> type) {
+        Lookup lookup = new Lookup("fetchChildNamed", NameMatcher.class, name, parent);
+        return fetch(lookup, childNamed(lookup, parent, name, type), TreeProperties.changesOf(parent, NAME),
+                     ex -> new ChildNotFoundException(name, ex));
+    }
+
+    /**
+     * Like {@link #fetchChildNamed}, but returns at once. Waiters that
+     * support it run the attempts of all pending lookups on one shared thread.
+     * Cancelling the future stops the attempts.
+     *
+     * @return a future that completes with a ChildNotFoundException when no
+     * child is found in time.
+     */
+    public <T extends Component> CompletableFuture<T> fetchChildNamedAsync(Component parent, String name, Class<T> type) {
+        Lookup lookup = new Lookup("fetchChildNamedAsync", NameMatcher.class, name, parent);
+        return fetchAsync(lookup, childNamed(lookup, parent, name, type), TreeProperties.changesOf(parent, NAME),
+                          ex -> new ChildNotFoundException(name, ex));
+    }
+
+    private <T extends Component> Supplier<T> childNamed(Lookup lookup, Component parent, String name, Class<T> type) {
+        Searcher<T> searcher = new Searcher<>(childrenFetcher(), new NameMatcher<>(name, type), paths, summary);
+        return index != null && index.covers(parent)
+               ? () -> searchIndexed(lookup, parent, name, type, searcher)
+               : () -> attempt(lookup, searcher, parent);
+    }
+
+    /**
+     * Looks the name up in the index, and walks the tree when the name is not
+     * unique, to find the first in the order of the walk. The walk runs
+     * outside the task that reads the index, so that it is split like any
+     * other attempt.
+     */
+    private <T extends Component> T searchIndexed(Lookup lookup, Component parent, String name, Class<T> type, Searcher<T> searcher) {
+        List<T> found = confine(() -> indexed(parent, name, type));
+        return found.isEmpty() ? null
+               : found.size() == 1 ? found.get(0)
+                 : attempt(lookup, searcher, parent);
+    }
+
+    private <T extends Component> List<T> indexed(Component parent, String name, Class<T> type) {
+        List<T> found = index.named(parent, name, type);
+        if (excludeMenus)
+            found.removeIf(SwingUtil::isMenuItem);
+        return found;
+    }
+
     public <T extends Component> T fetchChildIndexed(Component parent, int index, Class<T> type) {
+        Lookup lookup = new Lookup("fetchChildIndexed", IndexMatcher.class, index, parent);
+        Searcher<T> searcher = new Searcher<>(childrenFetcher(), new IndexMatcher<>(index, type), null, summary);
+        return fetch(lookup, () -> attempt(lookup, searcher, parent), ex -> new ChildNotFoundException(index, ex));
+    }
+
+    /**
+     * Fetches all named children in one walk of the tree per attempt.
+     *
+     * @param types the type of each child, by name.
+     * @throws ChildNotFoundException listing the names that were not found in time.
+     */
+    public NamedChildren fetchChildrenNamed(Component parent, Map<String, Class<?>> types) {
+        Lookup lookup = new Lookup("fetchChildrenNamed", NameMatcher.class, types.keySet(), parent);
+        BatchSearcher searcher = new BatchSearcher(childrenFetcher(), types);
+        return index != null && index.covers(parent)
+               ? fetch(lookup, () -> searcher.searchIndexed(lookup, parent), TreeProperties.changesOf(parent, NAME),
+                       ex -> new ChildNotFoundException(searcher.missing(), ex))
+               : fetch(lookup, () -> attempt(lookup, searcher, parent), TreeProperties.changesOf(parent, NAME),
+                       ex -> new ChildNotFoundException(searcher.missing(), ex));
+    }
+
+    /**
+     * Fetches the first cell of the table model, row by row, whose value
+     * matches, for example {@code Predicate.isEqual("Alice")}. Besides the
+     * changes the waiter waits for, the changes of the model trigger a new
+     * attempt.
+     *
+     * @see ModelScanner
+     */
+    public TableCell fetchTableCell(JTable table, Predicate<Object> predicate) {
+        Lookup lookup = new Lookup("fetchTableCell", TableModel.class, predicate, table);
+        return fetch(lookup, () -> ModelScanner.scan(table.getModel(), predicate), ModelScanner.changesOf(table),
+                     ex -> new ChildNotFoundException("cell", table, table.getModel(), predicate, ex));
+    }
+
+    public ListCell fetchListCell(JList<?> list, Predicate<Object> predicate) {
+        Lookup lookup = new Lookup("fetchListCell", ListModel.class, predicate, list);
+        return fetch(lookup, () -> ModelScanner.scan(list.getModel(), predicate), ModelScanner.changesOf(list),
+                     ex -> new ChildNotFoundException("element", list, list.getModel(), predicate, ex));
+    }
+
+    /**
+     * Fetches the path to the first node of the tree model, depth first, that
+     * matches. The predicate receives the nodes of the model.
+     */
+    public TreePath fetchTreePath(JTree tree, Predicate<Object> predicate) {
+        Lookup lookup = new Lookup("fetchTreePath", TreeModel.class, predicate, tree);
+        return fetch(lookup, () -> ModelScanner.scan(tree.getModel(), predicate), ModelScanner.changesOf(tree),
+                     ex -> new ChildNotFoundException("node", tree, tree.getModel(), predicate, ex));
+    }
+
+    /**
+     * Returns the descendants that match, in depth first order, without
+     * waiting. The tree is walked lazily as the stream is consumed, so
+     * {@code findFirst} or {@code limit} stop the walk early. A parallel
+     * stream splits the tree between its subtrees; the tree must not change
+     * while it is walked, and matchers that require a {@link MatchContext}
+     * are walked sequentially. When confined to the event dispatch
+     * thread, the matches are collected on that thread first.
+     */
+    public <T extends Component> Stream<T> streamChildren(Component parent, Matcher<T> matcher) {
+        return edtTaskTime > 0
+               ? fetchAll(parent, matcher).stream()
+               : StreamSupport.stream(new ComponentSpliterator<>(childrenFetcher(), matcher, parent), false);
+    }
+
+    /**
+     * Returns all descendants that match, in depth first order, collected in
+     * one walk of the tree, without waiting.
+     */
+    public <T extends Component> List<T> fetchAll(Component parent, Matcher<T> matcher) {
+        return confine(() -> StreamSupport.stream(new ComponentSpliterator<>(childrenFetcher(), matcher, parent), false)
+                .collect(Collectors.toList()));
+    }
+
+    public <T extends Component> List<T> fetchAll(Component parent, Class<T> type) {
+        return fetchAll(parent, (Matcher<T>) type::isInstance);
+    }
+
+    /**
+     * Fetches the first child with the name in any displayable window, in
+     * the order of {@link Window#getWindows()}. Each attempt searches the
+     * windows one by one like {@link #fetchChildNamed}, and stops at the
+     * first window with a match. Owned windows are searched as windows of
+     * their own.
+     */
+    public <T extends Component> T fetchChildNamedInAllWindows(String name, Class<T> type) {
+        Lookup lookup = new Lookup("fetchChildNamedInAllWindows", NameMatcher.class, name, null);
+        Searcher<T> searcher = new Searcher<>(childrenFetcher(), new NameMatcher<>(name, type), paths, summary);
+        return fetch(lookup, () -> firstIn(lookup, searcher), listener -> subscribeToWindows(listener, NAME),
+                     ex -> new ChildNotFoundException(name, ex));
+    }
+
+    /**
+     * Returns all descendants of all displayable windows that match, window
+     * by window in the order of {@link Window#getWindows()}, without waiting.
+     * Each window is walked like {@link #fetchAll(Component, Matcher)}.
+     * Matchers that depend on the components visited before, such as the
+     * n-th match, count per window.
+     */
+    public <T extends Component> List<T> fetchAllInAllWindows(Matcher<T> matcher) {
+        List<T> found = new ArrayList<>();
+        for (Window w : Window.getWindows())
+            if (w.isDisplayable())
+                found.addAll(fetchAll(w, matcher));
+        return found;
+    }
+
+    private <T extends Component> T firstIn(Lookup lookup, Searcher<T> searcher) {
+        for (Window w : Window.getWindows())
+            if (w.isDisplayable()) {
+                T found = attempt(lookup, searcher, w);
+                if (found != null)
+                    return found;
+            }
+        return null;
+    }
+
+    /**
+     * Follows the properties in the windows that are displayable now; new
+     * windows raise window events of their own.
+     */
+    private static Runnable subscribeToWindows(Runnable listener, String... properties) {
+        List<Runnable> unsubscribes = new ArrayList<>();
+        for (Window w : Window.getWindows())
+            if (w.isDisplayable())
+                unsubscribes.add(TreeProperties.changesOf(w, properties).subscribe(listener));
+        return () -> unsubscribes.forEach(Runnable::run);
+    }
+
+    /**
+     * Fetches the first descendant in depth first order that is selected by
+     * the selector, for example {@code "JPanel[name='form'] > JButton[text='OK']"}.
+     * Windows owned by a window are searched as children of that window.
+     *
+     * @throws org.kruijff.utilities.swing.exceptions.SelectorSyntaxException if
+     * the selector is not valid.
+     * @see Selector
+     */
+    public <T extends Component> T fetchSelected(Component parent, String selector, Class<T> type) {
+        return fetchSelected(parent, Selector.compile(selector), type);
+    }
+
+    public <T extends Component> T fetchSelected(Component parent, Selector selector, Class<T> type) {
+        Lookup lookup = new Lookup("fetchSelected", Selector.class, selector, parent);
+        SelectorSearcher<T> searcher = new SelectorSearcher<>(new ChilderenAndWindowsFetcher<>(), selector, type);
+        return fetch(lookup, () -> attempt(lookup, searcher, parent), TreeProperties.changesOf(parent, NAME, TEXT, TITLE),
+                     ex -> new ChildNotFoundException(selector, ex));
+    }
+
+    private <R> R fetch(Lookup lookup, Supplier<R> attempt, Function<ConditionTimeoutException, ChildNotFoundException> notFound) {
+        return fetch(lookup, attempt, null, notFound);
+    }
+
+    private <R> R fetch(Lookup lookup, Supplier<R> attempt, ChangeSource source, Function<ConditionTimeoutException, ChildNotFoundException> notFound) {
+        lookup.begin();
         try {
-            return await.until(() -> {
-                Searcher<T> searcher = new Searcher<>(new DefaultChilderenFetcher<>(), new IndexMatcher<>(index, type));
-                return searcher.searchChilderen(parent);
-            }, isNotNull());
+            Supplier<R> measured = lookup.measure(attempt);
+            R found = source == null ? waiter.until(measured) : waiter.until(measured, source);
+            lookup.finish(true);
+            return found;
         } catch (ConditionTimeoutException ex) {
-            throw new ChildNotFoundException(index);
+            lookup.finish(false);
+            throw lookup.diagnose(notFound.apply(ex));
+        } catch (RuntimeException | Error ex) {
+            lookup.finish(false);
+            throw ex;
+        }
+    }
+
+    private <R> CompletableFuture<R> fetchAsync(Lookup lookup, Supplier<R> attempt, ChangeSource source,
+                                                Function<ConditionTimeoutException, ChildNotFoundException> notFound) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        lookup.begin();
+        CompletableFuture<R> attempts = waiter.untilAsync(lookup.measure(attempt), source);
+        result.whenComplete((found, ex) -> {
+            if (result.isCancelled())
+                attempts.cancel(true);
+        });
+        attempts.whenComplete((found, ex) -> {
+            Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+            lookup.finish(cause == null);
+            if (cause == null)
+                result.complete(found);
+            else if (cause instanceof ConditionTimeoutException)
+                result.completeExceptionally(lookup.diagnose(notFound.apply((ConditionTimeoutException) cause)));
+            else
+                result.completeExceptionally(cause);
+        });
+        return result;
+    }
+
+    private <R> R confine(Supplier<R> task) {
+        return edtTaskTime > 0 ? SwingThreads.call(task) : task.get();
+    }
+
+    private <R> R attempt(Lookup lookup, Search<R> search, Component parent) {
+        long visited = search.traversal.nodesVisited();
+        try {
+            return attempt(search, parent);
+        } finally {
+            lookup.visited(search.traversal.nodesVisited() - visited);
+        }
+    }
+
+    private <R> R attempt(Search<R> search, Component parent) {
+        if (edtTaskTime <= 0 || SwingUtilities.isEventDispatchThread())
+            return search.search(parent);
+
+        R found = SwingThreads.call(() -> search.start(parent, edtTaskTime));
+        while (found == null && search.isSuspended())
+            found = SwingThreads.call(() -> search.proceedFor(edtTaskTime));
+        return found;
+    }
+
+    /**
+     * Collects the statistics of one fetch. The attempts may run on another
+     * thread than the one that started the fetch.
+     */
+    private class Lookup {
+
+        private final long id = LOOKUP_IDS.incrementAndGet();
+        private final String name;
+        private final Class<?> matcher;
+        private final String target;
+        private final Component parent;
+        private final long start = System.nanoTime();
+        private TreeDump first;
+        private int attempts;
+        private long nodesVisited;
+        private long traversalNanos;
+
+        private Lookup(String name, Class<?> matcher, Object target, Component parent) {
+            this.name = name;
+            this.matcher = matcher;
+            this.target = String.valueOf(target);
+            this.parent = parent;
+        }
+
+        /**
+         * Tells the listeners the lookup started, and dumps the tree before
+         * the first attempt when the dump of a failed lookup should show what
+         * changed while it waited.
+         */
+        private void begin() {
+            for (LookupListener l : listeners)
+                l.lookupStarted(id);
+            if (dumper != null && dumper.isDiff() && parent != null)
+                first = dumper.dump(parent);
+        }
+
+        /**
+         * Attaches a dump of the tree as it is now, and what changed since
+         * the lookup started when known. Lookups over all windows have no
+         * single tree to dump.
+         */
+        private ChildNotFoundException diagnose(ChildNotFoundException ex) {
+            if (dumper == null || parent == null)
+                return ex;
+            TreeDump last = dumper.dump(parent);
+            if (first == null)
+                return ex.withTreeDump(last.toString());
+            List<String> changes = last.changesSince(first);
+            return ex.withTreeDump(last + "\nchanged while waiting:" + (changes.isEmpty() ? " nothing" : "\n" + String.join("\n", changes)));
+        }
+
+        private <R> Supplier<R> measure(Supplier<R> attempt) {
+            return () -> {
+                long begin = System.nanoTime();
+                try {
+                    return attempt.get();
+                } finally {
+                    attempted(System.nanoTime() - begin);
+                }
+            };
+        }
+
+        private synchronized void attempted(long nanos) {
+            ++attempts;
+            traversalNanos += nanos;
+        }
+
+        private synchronized void visited(long nodes) {
+            nodesVisited += nodes;
+        }
+
+        private synchronized void finish(boolean found) {
+            if (listeners.isEmpty())
+                return;
+            long total = System.nanoTime() - start;
+            LookupStatistics statistics = new LookupStatistics(id, name, matcher, target, found,
+                                                               attempts, nodesVisited, traversalNanos, total);
+            for (LookupListener l : listeners)
+                l.lookupFinished(statistics);
+        }
+    }
+
+    private abstract static class Search<R> {
+
+        final Traversal traversal;
+
+        private Search(Fetcher<?> fetcher) {
+            this.traversal = new Traversal(fetcher);
+        }
+
+        R search(Component parent) {
+            R found = cached(parent);
+            if (found != null)
+                return found;
+            begin(parent);
+            return proceed();
+        }
+
+        /**
+         * Starts a walk that runs at most the specified time, unless the
+         * result is found without a walk.
+         */
+        R start(Component parent, long nanos) {
+            R found = cached(parent);
+            if (found != null)
+                return found;
+            begin(parent);
+            return proceedFor(nanos);
+        }
+
+        /**
+         * Returns the result if it can be found without a walk, or null.
+         */
+        R cached(Component parent) {
+            return null;
+        }
+
+        void begin(Component parent) {
+            traversal.reset(parent);
+        }
+
+        /**
+         * Continues the walk until it finds the result, completes or is suspended.
+         */
+        abstract R proceed();
+
+        /**
+         * Continues the walk for at most the specified time. A suspended walk
+         * over a tree whose child counts changed since it was suspended is
+         * abandoned, so that the attempt fails and the next one starts over.
+         */
+        R proceedFor(long nanos) {
+            if (traversal.isSuspended() && !traversal.isIntact()) {
+                traversal.clear();
+                return null;
+            }
+            traversal.limit(System.nanoTime() + nanos);
+            try {
+                return proceed();
+            } finally {
+                traversal.unlimit();
+            }
+        }
+
+        boolean isSuspended() {
+            return traversal.isSuspended();
         }
     }
 
-    private static class Searcher<T extends Component> {
+    private class BatchSearcher
+            extends Search<NamedChildren> {
+
+        private final Map<String, Class<?>> types;
+        private final Map<String, Component> found;
+        private volatile Collection<String> missing;
+
+        private BatchSearcher(Fetcher<Component> fetcher, Map<String, Class<?>> types) {
+            super(fetcher);
+            this.types = new LinkedHashMap<>(types);
+            this.found = new HashMap<>(types.size() * 2);
+            this.missing = this.types.keySet();
+        }
+
+        @Override
+        void begin(Component parent) {
+            super.begin(parent);
+            found.clear();
+        }
+
+        @Override
+        NamedChildren proceed() {
+            for (Component child = traversal.next(); child != null; child = traversal.next()) {
+                String name = child.getName();
+                Class<?> type = name == null ? null : types.get(name);
+                if (type != null && type.isInstance(child) && found.putIfAbsent(name, child) == null
+                        && found.size() == types.size())
+                    break;
+            }
+            if (traversal.isSuspended())
+                return null;
+            traversal.clear();
+            return result();
+        }
+
+        /**
+         * Looks the names up in the index, and walks the tree when a name is
+         * not unique. The walk runs outside the task that reads the index, so
+         * that it is split like any other attempt.
+         */
+        private NamedChildren searchIndexed(Lookup lookup, Component parent) {
+            return confine(() -> collectIndexed(parent)) ? result() : attempt(lookup, this, parent);
+        }
+
+        /**
+         * @return false when a name is not unique.
+         */
+        private boolean collectIndexed(Component parent) {
+            found.clear();
+            for (Map.Entry<String, Class<?>> e : types.entrySet())
+                for (Component c : index.named(parent, e.getKey(), Component.class)) {
+                    if (!e.getValue().isInstance(c) || excludeMenus && isMenuItem(c))
+                        continue;
+                    if (found.putIfAbsent(e.getKey(), c) != null)
+                        return false;
+                }
+            return true;
+        }
+
+        private NamedChildren result() {
+            if (found.size() == types.size())
+                return new NamedChildren(found);
+            List<String> names = new ArrayList<>(types.keySet());
+            names.removeAll(found.keySet());
+            missing = names;
+            return null;
+        }
+
+        private Collection<String> missing() {
+            return missing;
+        }
+    }
+
+    private static class Searcher<T extends Component>
+            extends Search<T> {
 
-        private final Fetcher<T> fetcher;
         private final Matcher<T> matcher;
+        private final MatchContext context = new MatchContext();
+        private final PathCache paths;
+        private final TypeSummary summary;
+        private final Class<?> type;
+        private Component parent;
 
-        private Searcher(Fetcher<T> fetcher, Matcher<T> matcher) {
-            this.fetcher = fetcher;
+        /**
+         * @param paths remembers where the matcher matched, for matchers that
+         * match regardless of the components visited before.
+         * @param summary rules out subtrees for the type of the matcher; only
+         * for fetchers that walk the children of the containers.
+         */
+        private Searcher(Fetcher<T> fetcher, Matcher<T> matcher, PathCache paths, TypeSummary summary) {
+            super(fetcher);
             this.matcher = matcher;
+            this.paths = paths;
+            this.summary = summary;
+            this.type = matcher.type();
         }
 
+        @Override
         @SuppressWarnings("unchecked")
-        private T searchChilderen(Component parent) {
-            for (Component child : fetcher.getChilderen(parent)) {
-                T found = searchChild(child);
-                if (found != null)
-                    return found;
-            }
+        T cached(Component parent) {
+            int[] path = paths == null ? null : paths.get(parent, matcher);
+            if (path == null)
+                return null;
+            Component child = traversal.follow(parent, path);
+            if (child != null && matcher.childMatches(child))
+                return (T) child;
+            paths.remove(parent, matcher);
             return null;
         }
 
+        @Override
+        void begin(Component parent) {
+            super.begin(parent);
+            context.reset();
+            this.parent = parent;
+        }
+
+        @Override
         @SuppressWarnings("unchecked")
-        private T searchChild(Component child) {
-            return child instanceof Window && !child.isDisplayable() ? null
-                   : matcher.childMatches(child) ? (T) child
-                     : searchChilderen(child);
+        T proceed() {
+            for (Component child = traversal.next(); child != null; child = traversal.next())
+                if (summary != null && !summary.mayContain(child, type))
+                    traversal.skipChildren();
+                else if (matcher.childMatches(child, context)) {
+                    if (paths != null)
+                        paths.put(parent, matcher, traversal.path());
+                    traversal.clear();
+                    parent = null;
+                    return (T) child;
+                }
+            if (!traversal.isSuspended())
+                parent = null;
+            return null;
+        }
+    }
+
+    private static class SelectorSearcher<T extends Component>
+            extends Search<T> {
+
+        private final Selector.Evaluation evaluation;
+        private final Class<T> type;
+
+        private SelectorSearcher(Fetcher<T> fetcher, Selector selector, Class<T> type) {
+            super(fetcher);
+            this.evaluation = selector.evaluate();
+            this.type = type;
+        }
+
+        @Override
+        void begin(Component parent) {
+            super.begin(parent);
+            evaluation.reset();
+        }
+
+        @Override
+        T proceed() {
+            for (Component child = traversal.next(); child != null; child = traversal.next()) {
+                if (evaluation.visit(child, traversal.depth()) && type.isInstance(child)) {
+                    traversal.clear();
+                    return type.cast(child);
+                }
+                if (evaluation.canSkipChildren())
+                    traversal.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Checks the state only after a change was reported since the last check,
+     * and passes the changes on to the waiter.
+     */
+    private static class StateCheck<C extends Component>
+            implements Supplier<C>, ChangeSource {
+
+        private final C component;
+        private final State<? super C> state;
+        private final AtomicBoolean changed = new AtomicBoolean(true);
+        private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+        private StateCheck(C component, State<? super C> state) {
+            this.component = component;
+            this.state = state;
+        }
+
+        private void changed() {
+            changed.set(true);
+            for (Runnable l : listeners)
+                l.run();
+        }
+
+        @Override
+        public C get() {
+            if (!changed.getAndSet(false))
+                return null;
+            return SwingThreads.call(() -> state.isReachedBy(component)) ? component : null;
+        }
+
+        @Override
+        public Runnable subscribe(Runnable listener) {
+            listeners.add(listener);
+            return () -> listeners.remove(listener);
         }
     }
 
+    @SuppressWarnings("PublicInnerClass")
+    public static interface Waiter {
+
+        /**
+         * Repeats the search until it returns a non null value.
+         *
+         * @throws ConditionTimeoutException when the search did not succeed in time.
+         */
+        public <T> T until(Supplier<T> search);
+
+        /**
+         * Returns a waiter with the same timeout that spaces its attempts
+         * according to the specified strategy. A waiter that does not poll
+         * may return itself.
+         *
+         * @throws UnsupportedOperationException when this waiter does not
+         * support poll strategies.
+         */
+        public default Waiter withPollStrategy(PollStrategy strategy) {
+            throw new UnsupportedOperationException(getClass().getName() + " does not support poll strategies");
+        }
+
+        /**
+         * Repeats the search until it returns a non null value, without
+         * blocking the caller. The future completes exceptionally with a
+         * ConditionTimeoutException when the search did not succeed in time.
+         * By default the search runs {@link #until(Supplier)} on a thread of
+         * its own, which stays in use until the search returns or the future
+         * is cancelled.
+         */
+        public default <T> CompletableFuture<T> untilAsync(Supplier<T> search) {
+            return LookupScheduler.shared().submitBlocking(() -> until(search));
+        }
+
+        /**
+         * Repeats the search until it returns a non null value, also
+         * attempting after each change reported by the source. By default
+         * the source is ignored.
+         *
+         * @throws ConditionTimeoutException when the search did not succeed in time.
+         */
+        public default <T> T until(Supplier<T> search, ChangeSource source) {
+            return until(search);
+        }
+
+        /**
+         * Like {@link #untilAsync(Supplier)}, also attempting after each
+         * change reported by the source. By default the source is ignored.
+         */
+        public default <T> CompletableFuture<T> untilAsync(Supplier<T> search, ChangeSource source) {
+            return untilAsync(search);
+        }
+    }
+
+    @SuppressWarnings("PublicInnerClass")
+    public static interface ChangeSource {
+
+        /**
+         * Calls the listener after each change, until the returned handle is run.
+         */
+        public Runnable subscribe(Runnable listener);
+    }
+
+    /**
+     * A state a component can reach, such as a text or being enabled.
+     *
+     * @see org.kruijff.utilities.swing.states.States
+     */
+    @SuppressWarnings("PublicInnerClass")
+    public static interface State<C extends Component> {
+
+        /**
+         * Returns true if the component is in this state. Called on the event
+         * dispatch thread.
+         */
+        public boolean isReachedBy(C component);
+
+        /**
+         * Returns the changes of the component after which the state must be
+         * checked again.
+         */
+        public ChangeSource changesOf(C component);
+    }
+
+    @SuppressWarnings("PublicInnerClass")
+    public static interface PollStrategy {
+
+        /**
+         * Returns the time to wait before the next attempt.
+         *
+         * @param attempts the number of attempts made so far.
+         * @param lastAttempt the time the last attempt took, in nanoseconds, or 0 when unknown.
+         * @param remaining the time left until the timeout, in nanoseconds, or Long.MAX_VALUE when unknown.
+         * @return the delay in nanoseconds.
+         */
+        public long nextDelay(int attempts, long lastAttempt, long remaining);
+    }
+
+    @SuppressWarnings("PublicInnerClass")
+    public static interface LookupListener {
+
+        /**
+         * Called on the thread that fetches, before the first attempt.
+         *
+         * @param id identifies the fetch, which is finished by the call of
+         * {@link #lookupFinished} with the statistics of the same id.
+         */
+        public default void lookupStarted(long id) {
+        }
+
+        /**
+         * Called on the thread that fetched, once the fetch found its target or timed out.
+         */
+        public void lookupFinished(LookupStatistics statistics);
+    }
+
     @SuppressWarnings("PublicInnerClass")
     public static interface Fetcher<T extends Component> {
 
         Component[] getChilderen(Component parent);
     }
 
+    /**
+     * A fetcher that gives access to the children through their index, so
+     * that the children need not be copied into an array.
+     */
+    @SuppressWarnings("PublicInnerClass")
+    public static interface IndexedFetcher<T extends Component>
+            extends Fetcher<T> {
+
+        public int getChildCount(Component parent);
+
+        /**
+         * @return null when the child was removed in the mean time.
+         */
+        public Component getChild(Component parent, int index);
+
+        @Override
+        public default Component[] getChilderen(Component parent) {
+            Component[] children = new Component[getChildCount(parent)];
+            for (int i = 0; i < children.length; ++i)
+                children[i] = getChild(parent, i);
+            return children;
+        }
+    }
+
     @SuppressWarnings("PublicInnerClass")
     public static interface Matcher<T extends Component> {
 
+        /**
+         * Returns true if the component matches, regardless of the components
+         * visited before it. Implementations must not change state here.
+         */
         public boolean childMatches(Component c);
+
+        /**
+         * Returns true if the component matches during the walk the context
+         * belongs to. Matchers that depend on the components visited before,
+         * such as the n-th match, keep that state in the context.
+         */
+        public default boolean childMatches(Component c, MatchContext context) {
+            return childMatches(c);
+        }
+
+        /**
+         * Returns true if the matcher depends on the order of the walk, so
+         * the tree must be walked sequentially with one context.
+         */
+        public default boolean requiresContext() {
+            return false;
+        }
+
+        /**
+         * Returns a type that every matching component is an instance of, so
+         * that a walk can skip the subtrees without such components.
+         */
+        public default Class<?> type() {
+            return Component.class;
+        }
     }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing;
+
+import java.awt.*;
+import java.util.*;
+
+/**
+ * Walks a component tree depth first, without recursion, on an explicit stack
+ * that is reused between walks. Children are read through their index when
+ * the fetcher allows it, so a walk allocates nothing per node. Windows that
+ * are not displayable are skipped together with their children.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+class Traversal {
+
+    private static final int INITIAL_DEPTH = 16;
+    private static final int CLOCK_MASK = 63;
+
+    private final SwingUtil.Fetcher<?> fetcher;
+    private final SwingUtil.IndexedFetcher<?> indexed;
+
+    private Component[] parents = new Component[INITIAL_DEPTH];
+    private Component[][] children = new Component[INITIAL_DEPTH][];
+    private int[] counts = new int[INITIAL_DEPTH];
+    private int[] positions = new int[INITIAL_DEPTH];
+    private int depth;
+    private Component pending;
+    private boolean limited;
+    private long deadline;
+    private int visited;
+    private long nodesVisited;
+    private int lastDepth;
+    private boolean suspended;
+
+    Traversal(SwingUtil.Fetcher<?> fetcher) {
+        this.fetcher = fetcher;
+        this.indexed = fetcher instanceof SwingUtil.IndexedFetcher ? (SwingUtil.IndexedFetcher<?>) fetcher : null;
+    }
+
+    /**
+     * Starts a new walk over the descendants of the specified parent.
+     */
+    void reset(Component parent) {
+        clear();
+        push(parent);
+    }
+
+    /**
+     * Releases the references to the tree of the last walk.
+     */
+    void clear() {
+        while (depth > 0)
+            pop();
+        pending = null;
+        suspended = false;
+    }
+
+    /**
+     * Suspends the walk once the specified {@link System#nanoTime()} has
+     * passed. A suspended walk continues where it left off on the next call
+     * to {@link #next()}.
+     */
+    void limit(long deadline) {
+        this.limited = true;
+        this.deadline = deadline;
+    }
+
+    void unlimit() {
+        limited = false;
+    }
+
+    /**
+     * Returns true if the last call to {@link #next()} returned null because
+     * the walk was suspended rather than completed.
+     */
+    boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Returns true if the number of children of every container on the stack
+     * is still the number counted when the walk reached it. A suspended walk
+     * that resumes in a later task on the event dispatch thread checks this
+     * first, since the tree may have changed in between; a walk that is no
+     * longer intact must start over.
+     */
+    boolean isIntact() {
+        for (int i = 0; i < depth; ++i) {
+            int count = children[i] == null ? indexed.getChildCount(parents[i]) : fetcher.getChilderen(parents[i]).length;
+            if (count != counts[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the depth of the last returned component, where the children of
+     * the parent of the walk have depth 1.
+     */
+    int depth() {
+        return lastDepth;
+    }
+
+    /**
+     * Returns the child indexes from the parent of the walk to the last
+     * returned component.
+     */
+    int[] path() {
+        int[] path = new int[lastDepth];
+        for (int i = 0; i < lastDepth; ++i)
+            path[i] = positions[i] - 1;
+        return path;
+    }
+
+    /**
+     * Returns the component at the end of the chain of child indexes from the
+     * parent, or null when the chain no longer leads to a component.
+     */
+    Component follow(Component parent, int[] path) {
+        Component node = parent;
+        for (int index : path) {
+            node = childAt(node, index);
+            if (node == null || node instanceof Window && !node.isDisplayable())
+                return null;
+        }
+        return node;
+    }
+
+    private Component childAt(Component parent, int index) {
+        if (indexed != null)
+            return index < indexed.getChildCount(parent) ? indexed.getChild(parent, index) : null;
+        Component[] c = fetcher.getChilderen(parent);
+        return index < c.length ? c[index] : null;
+    }
+
+    /**
+     * Returns the number of nodes returned by this traversal over all walks.
+     */
+    long nodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * Returns the next descendant in depth first order, or null when the walk
+     * is complete. The children of the returned component are visited next,
+     * unless {@link #skipChildren()} is called.
+     */
+    Component next() {
+        suspended = false;
+        if (limited && (++visited & CLOCK_MASK) == 0 && System.nanoTime() - deadline > 0) {
+            suspended = depth > 0 || pending != null;
+            return null;
+        }
+        if (pending != null) {
+            push(pending);
+            pending = null;
+        }
+        while (depth > 0) {
+            int top = depth - 1;
+            if (positions[top] >= counts[top]) {
+                pop();
+                continue;
+            }
+            int index = positions[top]++;
+            Component child = children[top] != null ? children[top][index] : indexed.getChild(parents[top], index);
+            if (child == null || child instanceof Window && !child.isDisplayable())
+                continue;
+            pending = child;
+            lastDepth = depth;
+            ++nodesVisited;
+            return child;
+        }
+        return null;
+    }
+
+    /**
+     * Prevents the walk from visiting the children of the last returned component.
+     */
+    void skipChildren() {
+        pending = null;
+    }
+
+    private void push(Component parent) {
+        if (depth == parents.length)
+            grow();
+        parents[depth] = parent;
+        if (indexed != null) {
+            children[depth] = null;
+            counts[depth] = indexed.getChildCount(parent);
+        } else {
+            children[depth] = fetcher.getChilderen(parent);
+            counts[depth] = children[depth].length;
+        }
+        positions[depth] = 0;
+        ++depth;
+    }
+
+    private void pop() {
+        --depth;
+        parents[depth] = null;
+        children[depth] = null;
+    }
+
+    private void grow() {
+        int n = parents.length * 2;
+        parents = Arrays.copyOf(parents, n);
+        children = Arrays.copyOf(children, n);
+        counts = Arrays.copyOf(counts, n);
+        positions = Arrays.copyOf(positions, n);
+    }
+}
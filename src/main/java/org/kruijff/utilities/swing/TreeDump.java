@@ -0,0 +1,95 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing;
+
+import java.util.*;
+
+/**
+ * A bounded snapshot of a component tree, one line per component.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public final class TreeDump {
+
+    private final List<String> lines;
+    private final boolean truncated;
+
+    TreeDump(List<String> lines, boolean truncated) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.truncated = truncated;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns true if the tree had more nodes or characters than the dump
+     * was allowed to hold.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns the components that appeared, prefixed by {@code +}, and the
+     * components that disappeared, prefixed by {@code -}, since the earlier
+     * dump. Components are compared by their line, regardless of position.
+     */
+    public List<String> changesSince(TreeDump earlier) {
+        Map<String, Integer> unmatched = new HashMap<>();
+        for (String line : earlier.lines)
+            unmatched.merge(line.trim(), 1, Integer::sum);
+        List<String> changes = new ArrayList<>();
+        for (String line : lines)
+            if (!take(unmatched, line.trim()))
+                changes.add("+ " + line.trim());
+        for (String line : earlier.lines)
+            if (take(unmatched, line.trim()))
+                changes.add("- " + line.trim());
+        return changes;
+    }
+
+    private static boolean take(Map<String, Integer> counts, String key) {
+        Integer count = counts.get(key);
+        if (count == null)
+            return false;
+        if (count == 1)
+            counts.remove(key);
+        else
+            counts.put(key, count - 1);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing;
+
+import java.awt.*;
+import java.io.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.*;
+import org.kruijff.utilities.swing.fetchers.*;
+import org.kruijff.utilities.swing.matchers.*;
+
+/**
+ * Writes a component tree one line per component, with its type, name,
+ * text or title, and visibility. The dump stops at a maximum number of nodes
+ * and characters, so large trees yield a bounded dump. The tree is read on
+ * the event dispatch thread in chunks of nodes, and written in between, so
+ * the thread is neither stalled by a large tree nor by the output. When the
+ * event dispatch thread does not respond in time, for example because it
+ * hangs, the dump ends with a note that the rest is unavailable. When the
+ * child counts on the path of the walk change between two chunks, the dump
+ * ends with a note as well, since the rest would not match the lines before.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class TreeDumper {
+
+    public static final int DEFAULT_MAX_NODES = 2000;
+    public static final int DEFAULT_MAX_CHARS = 128 * 1024;
+    public static final long DEFAULT_EDT_TIMEOUT_MILLIS = 1000;
+
+    private static final int CHUNK = 256;
+    private static final int MAX_VALUE_LENGTH = 40;
+
+    private final int maxNodes;
+    private final int maxChars;
+    private final boolean diff;
+    private final long edtTimeout;
+
+    public TreeDumper() {
+        this(DEFAULT_MAX_NODES, DEFAULT_MAX_CHARS, false);
+    }
+
+    /**
+     * @param diff also dumps the tree when a lookup starts, so a failed
+     * lookup can report what changed while it waited.
+     */
+    public TreeDumper(int maxNodes, int maxChars, boolean diff) {
+        this(maxNodes, maxChars, diff, DEFAULT_EDT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param edtTimeout the time to wait for the event dispatch thread to
+     * read the next chunk of the tree, before the dump gives up.
+     */
+    public TreeDumper(int maxNodes, int maxChars, boolean diff, long edtTimeout, TimeUnit unit) {
+        if (maxNodes <= 0 || maxChars <= 0 || edtTimeout <= 0)
+            throw new IllegalArgumentException("maxNodes, maxChars and edtTimeout must be positive");
+        this.maxNodes = maxNodes;
+        this.maxChars = maxChars;
+        this.diff = diff;
+        this.edtTimeout = unit.toNanos(edtTimeout);
+    }
+
+    public boolean isDiff() {
+        return diff;
+    }
+
+    public TreeDump dump(Component root) {
+        List<String> lines = new ArrayList<>();
+        boolean truncated = walk(root, lines::add);
+        return new TreeDump(lines, truncated);
+    }
+
+    /**
+     * Streams the dump to the output, for example a file writer.
+     */
+    public void dump(Component root, Appendable out)
+            throws IOException {
+        try {
+            walk(root, line -> {
+                try {
+                    out.append(line).append('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Returns true if the dump was truncated.
+     */
+    private boolean walk(Component root, Consumer<String> out) {
+        Traversal traversal = new Traversal(new ChilderenAndWindowsFetcher<>());
+        int[] state = new int[2]; // nodes, chars
+        boolean[] changed = new boolean[1];
+        List<String> chunk = new ArrayList<>(CHUNK);
+        Boolean more = onEventDispatchThread(() -> {
+            traversal.reset(root);
+            line(root, 0, chunk, state);
+            return true;
+        });
+        while (true) {
+            chunk.forEach(out);
+            chunk.clear();
+            if (more == null) {
+                out.accept("... unavailable after " + state[0] + " nodes, the event dispatch thread did not respond within "
+                           + TimeUnit.NANOSECONDS.toMillis(edtTimeout) + " ms");
+                return true;
+            }
+            if (changed[0]) {
+                out.accept("... stopped after " + state[0] + " nodes, the tree changed while it was dumped");
+                return true;
+            }
+            if (!more)
+                return false;
+            if (state[0] >= maxNodes || state[1] >= maxChars) {
+                out.accept("... truncated after " + state[0] + " nodes");
+                onEventDispatchThread(() -> {
+                    traversal.clear();
+                    return false;
+                });
+                return true;
+            }
+            more = onEventDispatchThread(() -> {
+                if (!traversal.isIntact()) {
+                    traversal.clear();
+                    changed[0] = true;
+                    return false;
+                }
+                for (int n = 0; n < CHUNK; ++n) {
+                    Component c = traversal.next();
+                    if (c == null)
+                        return false;
+                    if (!line(c, traversal.depth(), chunk, state))
+                        return true;
+                }
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Returns the outcome of the task, or null when the event dispatch thread
+     * did not start it in time.
+     */
+    private Boolean onEventDispatchThread(Supplier<Boolean> task) {
+        try {
+            return SwingThreads.call(task, edtTimeout, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds the line of the component and returns false when a limit is reached.
+     */
+    private boolean line(Component c, int depth, List<String> chunk, int[] state) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < depth; ++i)
+            line.append("  ");
+        line.append(c.getClass().getName());
+        append(line, "name", c.getName());
+        append(line, "text", TextMatcher.textOf(c));
+        Object title = TitleMatcher.titleOf(c);
+        append(line, "title", title instanceof String ? (String) title : null);
+        if (!c.isVisible())
+            line.append(" hidden");
+        if (!c.isDisplayable())
+            line.append(" undisplayable");
+        chunk.add(line.toString());
+        state[0] += 1;
+        state[1] += line.length() + 1;
+        return state[0] < maxNodes && state[1] < maxChars;
+    }
+
+    private static void append(StringBuilder line, String key, String value) {
+        if (value == null || value.isEmpty())
+            return;
+        line.append(' ').append(key).append("='");
+        if (value.length() > MAX_VALUE_LENGTH)
+            line.append(value, 0, MAX_VALUE_LENGTH).append("...");
+        else
+            line.append(value);
+        line.append('\'');
+    }
+}
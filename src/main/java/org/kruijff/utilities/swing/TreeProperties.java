@@ -0,0 +1,301 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.beans.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import javax.swing.*;
+import javax.swing.Timer;
+import org.kruijff.utilities.swing.fetchers.*;
+
+/**
+ * Reports the changes of bound properties of the components in a tree, such
+ * as a new name, text or title, which raise no AWT event. The components that
+ * are added to the tree while subscribed are followed as well, and removed
+ * components are no longer followed. Windows owned by a window in the tree
+ * are part of the tree, also when they are opened later; the items of menus
+ * are not, so that following a tree does not touch the popups of its menus.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public final class TreeProperties {
+
+    private static final int LINGER = 1000;
+    private static final long TASK_TIME = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final Map<Component, Map<List<String>, Follower>> FOLLOWERS = new WeakHashMap<>();
+
+    private TreeProperties() {
+    }
+
+    /**
+     * Reports the changes of the properties in the tree below the root. The
+     * subscriptions to the same properties of the same tree share one set of
+     * listeners on the components, which stays for a second after the last
+     * subscription ended, so that many waiting lookups on a large tree cost
+     * one walk. The walk runs on the event dispatch thread in tasks of a few
+     * milliseconds each. The subscription returns after the first task; when
+     * the walk takes more tasks, or others subscribe while it runs, a change
+     * is reported once it completes, as a change made before the walk
+     * reached a component goes unnoticed.
+     */
+    public static SwingUtil.ChangeSource changesOf(Component root, String... properties) {
+        List<String> key = Arrays.asList(properties);
+        return listener -> {
+            Follower follower;
+            boolean created;
+            synchronized (FOLLOWERS) {
+                Map<List<String>, Follower> followers = FOLLOWERS.computeIfAbsent(root, r -> new HashMap<>());
+                follower = followers.get(key);
+                created = follower == null;
+                if (created) {
+                    follower = new Follower(properties);
+                    followers.put(key, follower);
+                }
+                follower.listeners.add(listener);
+            }
+            if (created)
+                follower.start(root);
+            else
+                follower.joined();
+            Follower subscribed = follower;
+            return () -> unsubscribe(root, key, subscribed, listener);
+        };
+    }
+
+    private static void unsubscribe(Component root, List<String> key, Follower follower, Runnable listener) {
+        synchronized (FOLLOWERS) {
+            follower.listeners.remove(listener);
+            if (!follower.listeners.isEmpty())
+                return;
+        }
+        Timer linger = new Timer(LINGER, e -> stop(root, key, follower));
+        linger.setRepeats(false);
+        linger.start();
+    }
+
+    private static void stop(Component root, List<String> key, Follower follower) {
+        synchronized (FOLLOWERS) {
+            Map<List<String>, Follower> followers = FOLLOWERS.get(root);
+            if (!follower.listeners.isEmpty() || followers == null || followers.get(key) != follower)
+                return;
+            followers.remove(key);
+            if (followers.isEmpty())
+                FOLLOWERS.remove(root);
+        }
+        follower.stop();
+    }
+
+    /**
+     * Fetches the children and owned windows of a component, but not the
+     * items of a menu.
+     */
+    private static class TreeFetcher
+            extends ChilderenAndWindowsFetcher<Component> {
+
+        @Override
+        public Component[] getChilderen(Component parent) {
+            return parent instanceof JMenu ? new Component[0] : super.getChilderen(parent);
+        }
+
+        @Override
+        public int getChildCount(Component parent) {
+            return parent instanceof JMenu ? 0 : super.getChildCount(parent);
+        }
+    }
+
+    /**
+     * Follows the components of one tree. The components are held weakly, so
+     * that a follower that is still lingering keeps no tree alive.
+     */
+    private static class Follower
+            implements AWTEventListener, ContainerListener, PropertyChangeListener {
+
+        private final String[] properties;
+        private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+        private final Set<Component> followed = Collections.newSetFromMap(new WeakHashMap<>());
+        private final SwingUtil.IndexedFetcher<Component> fetcher = new TreeFetcher();
+        private boolean stopped;
+        private boolean walking;
+        private boolean missed;
+
+        private Follower(String[] properties) {
+            this.properties = properties;
+        }
+
+        private void start(Component root) {
+            Toolkit.getDefaultToolkit().addAWTEventListener(this, AWTEvent.WINDOW_EVENT_MASK);
+            long taskTime = SwingUtilities.isEventDispatchThread() ? 0 : TASK_TIME;
+            SwingThreads.run(() -> walk(root, taskTime, true));
+        }
+
+        private synchronized void joined() {
+            if (walking)
+                missed = true;
+        }
+
+        /**
+         * Follows the subtree on the event dispatch thread, in tasks of at
+         * most the specified time, or in one task when the time is zero. A
+         * walk that finds the tree changed between two tasks starts over;
+         * the components it followed before are not followed twice.
+         */
+        private void walk(Component root, long taskTime, boolean initial) {
+            if (initial)
+                synchronized (this) {
+                    walking = true;
+                }
+            Traversal traversal = new Traversal(fetcher);
+            follow(root);
+            traversal.reset(root);
+            proceed(root, traversal, taskTime, initial, false);
+        }
+
+        private void proceed(Component root, Traversal traversal, long taskTime, boolean initial, boolean resumed) {
+            if (isStopped())
+                return;
+            if (traversal.isSuspended() && !traversal.isIntact())
+                traversal.reset(root);
+            if (taskTime > 0)
+                traversal.limit(System.nanoTime() + taskTime);
+            for (Component c = traversal.next(); c != null; c = traversal.next())
+                follow(c);
+            traversal.unlimit();
+            if (traversal.isSuspended()) {
+                SwingUtilities.invokeLater(() -> proceed(root, traversal, taskTime, initial, true));
+                return;
+            }
+            boolean report = resumed;
+            if (initial)
+                synchronized (this) {
+                    walking = false;
+                    report |= missed;
+                    missed = false;
+                }
+            if (report)
+                changed();
+        }
+
+        private synchronized boolean isStopped() {
+            return stopped;
+        }
+
+        private synchronized void follow(Component c) {
+            if (stopped || !followed.add(c))
+                return;
+            for (String property : properties)
+                c.addPropertyChangeListener(property, this);
+            if (c instanceof Container)
+                ((Container) c).addContainerListener(this);
+        }
+
+        /**
+         * Stops following the subtree of a removed component, in the task that
+         * removed it, so that a component that is added back elsewhere is
+         * followed again.
+         */
+        private void unfollow(Component removed) {
+            Traversal traversal = new Traversal(fetcher);
+            unfollowOne(removed);
+            traversal.reset(removed);
+            for (Component c = traversal.next(); c != null; c = traversal.next())
+                unfollowOne(c);
+        }
+
+        private synchronized void unfollowOne(Component c) {
+            if (!followed.remove(c))
+                return;
+            for (String property : properties)
+                c.removePropertyChangeListener(property, this);
+            if (c instanceof Container)
+                ((Container) c).removeContainerListener(this);
+        }
+
+        private void stop() {
+            Toolkit.getDefaultToolkit().removeAWTEventListener(this);
+            synchronized (this) {
+                stopped = true;
+                for (Component c : followed) {
+                    for (String property : properties)
+                        c.removePropertyChangeListener(property, this);
+                    if (c instanceof Container)
+                        ((Container) c).removeContainerListener(this);
+                }
+                followed.clear();
+            }
+        }
+
+        /**
+         * Follows the windows that are opened after the walk and are owned by
+         * a followed window.
+         */
+        @Override
+        public void eventDispatched(AWTEvent e) {
+            if (e.getID() != WindowEvent.WINDOW_OPENED)
+                return;
+            Window opened = (Window) e.getSource();
+            Window owner = opened.getOwner();
+            if (owner != null && isFollowed(owner) && !isFollowed(opened))
+                walk(opened, TASK_TIME, false);
+        }
+
+        private synchronized boolean isFollowed(Component c) {
+            return followed.contains(c);
+        }
+
+        @Override
+        public void componentAdded(ContainerEvent e) {
+            Component child = e.getChild();
+            if (SwingUtilities.isEventDispatchThread())
+                walk(child, TASK_TIME, false);
+            else
+                SwingUtilities.invokeLater(() -> walk(child, TASK_TIME, false));
+            changed();
+        }
+
+        @Override
+        public void componentRemoved(ContainerEvent e) {
+            unfollow(e.getChild());
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent e) {
+            changed();
+        }
+
+        private void changed() {
+            for (Runnable listener : listeners)
+                listener.run();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.cells;
+
+import java.awt.*;
+import java.beans.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+import javax.swing.*;
+import javax.swing.event.*;
+import javax.swing.table.*;
+import javax.swing.tree.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Searches the values of table, list and tree models directly, without their
+ * renderers. Models are scanned on the event dispatch thread in chunks, so the
+ * thread stays responsive while a large model is scanned. Table and list
+ * models that implement {@link ThreadSafeModel} are scanned in parallel on the
+ * calling thread instead.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public final class ModelScanner {
+
+    static final int CHUNK = 4096;
+
+    private ModelScanner() {
+    }
+
+    /**
+     * Returns the first cell, row by row, whose value matches, or null.
+     */
+    public static TableCell scan(TableModel model, Predicate<Object> predicate) {
+        int columns = read(model, model::getColumnCount);
+        if (columns == 0)
+            return null;
+        long found = firstIndex(model, () -> (long) model.getRowCount() * columns,
+                                i -> predicate.test(model.getValueAt((int) (i / columns), (int) (i % columns))));
+        if (found < 0)
+            return null;
+        int row = (int) (found / columns);
+        int column = (int) (found % columns);
+        return new TableCell(row, column, read(model, () -> model.getValueAt(row, column)));
+    }
+
+    /**
+     * Returns the first element whose value matches, or null.
+     */
+    public static ListCell scan(ListModel<?> model, Predicate<Object> predicate) {
+        long found = firstIndex(model, () -> model.getSize(), i -> predicate.test(model.getElementAt((int) i)));
+        return found < 0 ? null : new ListCell((int) found, read(model, () -> model.getElementAt((int) found)));
+    }
+
+    /**
+     * Returns the path to the first node, depth first, that matches, or null.
+     * The predicate receives the nodes of the model.
+     */
+    public static TreePath scan(TreeModel model, Predicate<Object> predicate) {
+        Deque<TreePath> stack = new ArrayDeque<>();
+        Object root = SwingThreads.call(model::getRoot);
+        if (root == null)
+            return null;
+        stack.push(new TreePath(root));
+        while (true) {
+            Optional<TreePath> found = SwingThreads.call(() -> {
+                for (int n = 0; n < CHUNK && !stack.isEmpty(); ++n) {
+                    TreePath path = stack.pop();
+                    Object node = path.getLastPathComponent();
+                    if (predicate.test(node))
+                        return Optional.of(path);
+                    for (int i = model.getChildCount(node) - 1; i >= 0; --i)
+                        stack.push(path.pathByAddingChild(model.getChild(node, i)));
+                }
+                return stack.isEmpty() ? Optional.empty() : null;
+            });
+            if (found != null)
+                return found.orElse(null);
+        }
+    }
+
+    private static <T> T read(Object model, Supplier<T> value) {
+        return model instanceof ThreadSafeModel ? value.get() : SwingThreads.call(value);
+    }
+
+    private static long firstIndex(Object model, LongSupplier size, LongPredicate test) {
+        if (model instanceof ThreadSafeModel)
+            return LongStream.range(0, size.getAsLong()).parallel().filter(test).findFirst().orElse(-1);
+
+        long[] next = new long[1];
+        while (true) {
+            Long found = SwingThreads.call(() -> {
+                long end = Math.min(size.getAsLong(), next[0] + CHUNK);
+                for (long i = next[0]; i < end; ++i)
+                    if (test.test(i))
+                        return i;
+                next[0] = end;
+                return end < size.getAsLong() ? null : -1L;
+            });
+            if (found != null)
+                return found;
+        }
+    }
+
+    /**
+     * Reports the changes of the model of the table, and of the model itself
+     * when the table is given another model.
+     */
+    public static SwingUtil.ChangeSource changesOf(JTable table) {
+        return listener -> {
+            TableModelListener onChange = e -> listener.run();
+            return follow(table, "model", table::getModel,
+                          m -> m.addTableModelListener(onChange), m -> m.removeTableModelListener(onChange), listener);
+        };
+    }
+
+    /**
+     * Reports the changes of the rows the table shows: those of its model and
+     * those of its row sorter, which sorts and filters the rows of the model.
+     */
+    public static SwingUtil.ChangeSource rowChangesOf(JTable table) {
+        return listener -> {
+            RowSorterListener onSort = e -> listener.run();
+            Runnable model = changesOf(table).subscribe(listener);
+            Runnable sorter = follow(table, "rowSorter", table::getRowSorter,
+                                     s -> s.addRowSorterListener(onSort), s -> s.removeRowSorterListener(onSort), listener);
+            return () -> {
+                sorter.run();
+                model.run();
+            };
+        };
+    }
+
+    public static SwingUtil.ChangeSource changesOf(JList<?> list) {
+        return listener -> {
+            ListDataListener onChange = new ListDataListener() {
+                @Override
+                public void intervalAdded(ListDataEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void intervalRemoved(ListDataEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void contentsChanged(ListDataEvent e) {
+                    listener.run();
+                }
+            };
+            return follow(list, "model", list::getModel,
+                          m -> m.addListDataListener(onChange), m -> m.removeListDataListener(onChange), listener);
+        };
+    }
+
+    public static SwingUtil.ChangeSource changesOf(JTree tree) {
+        return listener -> {
+            TreeModelListener onChange = new TreeModelListener() {
+                @Override
+                public void treeNodesChanged(TreeModelEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void treeNodesInserted(TreeModelEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void treeNodesRemoved(TreeModelEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void treeStructureChanged(TreeModelEvent e) {
+                    listener.run();
+                }
+            };
+            return follow(tree, JTree.TREE_MODEL_PROPERTY, tree::getModel,
+                          m -> m.addTreeModelListener(onChange), m -> m.removeTreeModelListener(onChange), listener);
+        };
+    }
+
+    /**
+     * Listens to the current model of the component, if any, and moves the
+     * listener along when the component is given another model.
+     */
+    private static <M> Runnable follow(Component c, String property, Supplier<M> model,
+                                       Consumer<M> add, Consumer<M> remove, Runnable listener) {
+        PropertyChangeListener onModel = e -> {
+            @SuppressWarnings("unchecked")
+            M previous = (M) e.getOldValue();
+            @SuppressWarnings("unchecked")
+            M current = (M) e.getNewValue();
+            if (previous != null)
+                remove.accept(previous);
+            if (current != null)
+                add.accept(current);
+            listener.run();
+        };
+        SwingThreads.run(() -> {
+            c.addPropertyChangeListener(property, onModel);
+            M current = model.get();
+            if (current != null)
+                add.accept(current);
+        });
+        return () -> SwingThreads.run(() -> {
+            c.removePropertyChangeListener(property, onModel);
+            M current = model.get();
+            if (current != null)
+                remove.accept(current);
+        });
+    }
+}
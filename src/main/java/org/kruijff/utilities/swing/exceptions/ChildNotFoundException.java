@@ -17,7 +17,12 @@
  */
 package org.kruijff.utilities.swing.exceptions;
 
+import java.awt.Component;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
 import org.awaitility.core.ConditionTimeoutException;
+import org.kruijff.utilities.swing.selectors.Selector;
 
 /**
  * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
@@ -27,6 +32,8 @@ public class ChildNotFoundException
 
     private static final long serialVersionUID = 1L;
 
+    private String treeDump;
+
     public ChildNotFoundException(String name) {
         super("name = " + name);
     }
@@ -42,4 +49,50 @@ public class ChildNotFoundException
     public ChildNotFoundException(int index, ConditionTimeoutException ex) {
         super("index = " + index, ex);
     }
+
+    public ChildNotFoundException(Collection<String> names, ConditionTimeoutException ex) {
+        super("names = " + names, ex);
+    }
+
+    public ChildNotFoundException(Selector selector, ConditionTimeoutException ex) {
+        super("selector = " + selector, ex);
+    }
+
+    /**
+     * Reports that no part of the model of the owner matched the predicate.
+     *
+     * @param part what was looked for, such as a cell.
+     */
+    public ChildNotFoundException(String part, Component owner, Object model, Predicate<?> predicate, ConditionTimeoutException ex) {
+        super(part + " matching " + predicate + " in " + model.getClass().getSimpleName() + " of "
+                + owner.getClass().getSimpleName() + (owner.getName() == null ? "" : " '" + owner.getName() + "'"), ex);
+    }
+
+    /**
+     * Reports a menu path that was resolved up to, but not including, the
+     * level with the specified index.
+     */
+    public ChildNotFoundException(String[] path, int level, ConditionTimeoutException ex) {
+        super(menuPathMessage(path, level), ex);
+    }
+
+    private static String menuPathMessage(String[] path, int level) {
+        String message = "path = " + String.join(" > ", path) + ", no "
+                + (level == path.length - 1 ? "item" : "menu") + " '" + path[level] + "'";
+        if (level == 0)
+            return message;
+        return message + " in " + String.join(" > ", Arrays.asList(path).subList(0, level));
+    }
+
+    /**
+     * Attaches a dump of the tree as it was when the lookup gave up.
+     */
+    public ChildNotFoundException withTreeDump(String treeDump) {
+        this.treeDump = treeDump;
+        return this;
+    }
+
+    public String getTreeDump() {
+        return treeDump;
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.fetchers;
+
+import java.awt.*;
+
+/**
+ * Fetches the children of a component like the {@link DefaultChilderenFetcher},
+ * followed by the owned windows when the component is a window.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class ChilderenAndWindowsFetcher<T extends Component>
+        extends DefaultChilderenFetcher<T> {
+
+    @Override
+    public Component[] getChilderen(Component parent) {
+        Component[] children = super.getChilderen(parent);
+        if (!(parent instanceof Window))
+            return children;
+        Window[] windows = ((Window) parent).getOwnedWindows();
+        Component[] all = new Component[children.length + windows.length];
+        System.arraycopy(children, 0, all, 0, children.length);
+        System.arraycopy(windows, 0, all, children.length, windows.length);
+        return all;
+    }
+
+    @Override
+    public int getChildCount(Component parent) {
+        int count = super.getChildCount(parent);
+        return parent instanceof Window ? count + ((Window) parent).getOwnedWindows().length : count;
+    }
+
+    /**
+     * Window offers no indexed access to its owned windows, so each owned
+     * window costs a copy of the owned windows array.
+     */
+    @Override
+    public Component getChild(Component parent, int index) {
+        int count = super.getChildCount(parent);
+        if (index < count)
+            return super.getChild(parent, index);
+        Window[] windows = ((Window) parent).getOwnedWindows();
+        return index - count < windows.length ? windows[index - count] : null;
+    }
+}
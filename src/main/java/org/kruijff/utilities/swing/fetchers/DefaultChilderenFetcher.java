@@ -37,10 +37,24 @@ import org.kruijff.utilities.swing.*;
  * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
  */
 public class DefaultChilderenFetcher<T extends Component>
-        implements SwingUtil.Fetcher<T> {
+        implements SwingUtil.IndexedFetcher<T> {
 
     @Override
     public Component[] getChilderen(Component parent) {
         return (parent instanceof JMenu) ? ((JMenu) parent).getMenuComponents() : (parent instanceof Container) ? ((Container) parent).getComponents() : new Component[0];
     }
+
+    @Override
+    public int getChildCount(Component parent) {
+        return (parent instanceof JMenu) ? ((JMenu) parent).getMenuComponentCount() : (parent instanceof Container) ? ((Container) parent).getComponentCount() : 0;
+    }
+
+    @Override
+    public Component getChild(Component parent, int index) {
+        try {
+            return (parent instanceof JMenu) ? ((JMenu) parent).getMenuComponent(index) : ((Container) parent).getComponent(index);
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,272 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.indexes;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.beans.*;
+import java.lang.ref.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Maps the names of components to the components within the indexed trees.
+ * The index follows the trees through container, hierarchy and property
+ * change events, and holds the components through weak references so that
+ * disposed windows can still be garbage collected. The popup of a menu is
+ * only indexed once it holds items, so that the index does not create the
+ * popups of menus that were never filled or opened.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class ComponentIndex {
+
+    private static final String NAME = "name";
+
+    private final Map<String, List<Reference<Component>>> components = new HashMap<>();
+    private final Map<Component, String> registered = new WeakHashMap<>();
+    private final List<Reference<Component>> roots = new ArrayList<>();
+    private final Set<JMenu> pending = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Listener listener = new Listener();
+
+    static Component parentOf(Component child) {
+        if (child instanceof JPopupMenu) {
+            Component invoker = ((JPopupMenu) child).getInvoker();
+            if (invoker instanceof JMenu)
+                return invoker;
+        }
+        return child.getParent();
+    }
+
+    private static boolean isMenuPopup(Component child) {
+        return child instanceof JPopupMenu && ((JPopupMenu) child).getInvoker() instanceof JMenu;
+    }
+
+    /**
+     * Indexes the tree below the specified root and keeps it current.
+     */
+    public ComponentIndex add(Component root) {
+        SwingThreads.run(() -> {
+            synchronized (this) {
+                roots.add(new WeakReference<>(root));
+                root.addHierarchyListener(listener);
+                register(root);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Stops indexing the tree below the specified root.
+     */
+    public void remove(Component root) {
+        SwingThreads.run(() -> {
+            synchronized (this) {
+                roots.removeIf(ref -> ref.get() == null || ref.get() == root);
+                root.removeHierarchyListener(listener);
+                unregister(root);
+            }
+        });
+    }
+
+    /**
+     * Returns true if the tree below the specified parent is indexed.
+     */
+    public synchronized boolean covers(Component parent) {
+        for (Component node = parent; node != null; node = parentOf(node))
+            for (Reference<Component> ref : roots)
+                if (ref.get() == node)
+                    return true;
+        return false;
+    }
+
+    /**
+     * Returns the components of the specified type with the specified name
+     * that can be reached from the parent, in no particular order.
+     */
+    public <T extends Component> List<T> named(Component parent, String name, Class<T> type) {
+        if (hasFilledPopups())
+            SwingThreads.run(this::registerFilledPopups);
+        synchronized (this) {
+            List<Reference<Component>> list = components.get(name);
+            if (list == null)
+                return Collections.emptyList();
+
+            List<T> found = new ArrayList<>(1);
+            for (Iterator<Reference<Component>> it = list.iterator(); it.hasNext();) {
+                Component c = it.next().get();
+                if (c == null)
+                    it.remove();
+                else if (type.isInstance(c) && isReachable(c, parent))
+                    found.add(type.cast(c));
+            }
+            if (list.isEmpty())
+                components.remove(name);
+            return found;
+        }
+    }
+
+    /**
+     * Returns true if a menu got items since it was registered. A menu does
+     * not report the creation of its popup, and asking for the popup creates
+     * it, so the item count is the only safe sign.
+     */
+    private synchronized boolean hasFilledPopups() {
+        for (JMenu menu : pending)
+            if (menu.getMenuComponentCount() > 0)
+                return true;
+        return false;
+    }
+
+    private synchronized void registerFilledPopups() {
+        List<JMenu> filled = new ArrayList<>();
+        for (JMenu menu : pending)
+            if (menu.getMenuComponentCount() > 0)
+                filled.add(menu);
+        pending.removeAll(filled);
+        for (JMenu menu : filled)
+            register(menu.getPopupMenu());
+    }
+
+    private static boolean isReachable(Component child, Component parent) {
+        if (child == parent || isMenuPopup(child))
+            return false;
+        for (Component node = child; node != null; node = parentOf(node)) {
+            if (node == parent)
+                return true;
+            if (node instanceof Window && !node.isDisplayable())
+                return false;
+        }
+        return false;
+    }
+
+    private void register(Component c) {
+        if (registered.containsKey(c))
+            return;
+        String name = c.getName();
+        registered.put(c, name == null ? "" : name);
+        put(name, c);
+        c.addPropertyChangeListener(NAME, listener);
+        if (c instanceof JMenu) {
+            JMenu menu = (JMenu) c;
+            if (menu.getMenuComponentCount() > 0)
+                register(menu.getPopupMenu());
+            else
+                pending.add(menu);
+        }
+        else if (c instanceof Container) {
+            Container container = (Container) c;
+            container.addContainerListener(listener);
+            for (int i = 0, n = container.getComponentCount(); i < n; ++i)
+                register(container.getComponent(i));
+        }
+    }
+
+    private void unregister(Component c) {
+        String name = registered.remove(c);
+        if (name == null)
+            return;
+        delete(name, c);
+        c.removePropertyChangeListener(NAME, listener);
+        if (c instanceof JMenu) {
+            if (!pending.remove(c))
+                unregister(((JMenu) c).getPopupMenu());
+        }
+        else if (c instanceof Container) {
+            Container container = (Container) c;
+            container.removeContainerListener(listener);
+            for (int i = 0, n = container.getComponentCount(); i < n; ++i)
+                unregister(container.getComponent(i));
+        }
+    }
+
+    private void put(String name, Component c) {
+        if (name != null && !name.isEmpty())
+            components.computeIfAbsent(name, key -> new ArrayList<>(1)).add(new WeakReference<>(c));
+    }
+
+    private void delete(String name, Component c) {
+        List<Reference<Component>> list = components.get(name);
+        if (list == null)
+            return;
+        list.removeIf(ref -> ref.get() == null || ref.get() == c);
+        if (list.isEmpty())
+            components.remove(name);
+    }
+
+    private synchronized void expunge() {
+        roots.removeIf(ref -> ref.get() == null);
+        for (Iterator<List<Reference<Component>>> it = components.values().iterator(); it.hasNext();) {
+            List<Reference<Component>> list = it.next();
+            list.removeIf(ref -> ref.get() == null);
+            if (list.isEmpty())
+                it.remove();
+        }
+    }
+
+    private class Listener
+            implements ContainerListener, HierarchyListener, PropertyChangeListener {
+
+        @Override
+        public void componentAdded(ContainerEvent e) {
+            synchronized (ComponentIndex.this) {
+                register(e.getChild());
+            }
+        }
+
+        @Override
+        public void componentRemoved(ContainerEvent e) {
+            synchronized (ComponentIndex.this) {
+                unregister(e.getChild());
+            }
+        }
+
+        @Override
+        public void hierarchyChanged(HierarchyEvent e) {
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0)
+                expunge();
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent e) {
+            Component c = (Component) e.getSource();
+            synchronized (ComponentIndex.this) {
+                if (!registered.containsKey(c))
+                    return;
+                delete(registered.get(c), c);
+                String name = (String) e.getNewValue();
+                registered.put(c, name == null ? "" : name);
+                put(name, c);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.indexes;
+
+import java.awt.*;
+import java.util.*;
+
+/**
+ * Remembers where a lookup last found its component, as the chain of child
+ * indexes from the parent. The next lookup follows the chain first and walks
+ * the tree only when the component at its end no longer matches. Entries are
+ * weakly keyed by the parent, so the cache does not keep windows alive.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class PathCache {
+
+    private final Map<Component, Map<Object, int[]>> paths = new WeakHashMap<>();
+
+    /**
+     * Returns the last known path below the parent for the key, or null.
+     */
+    public synchronized int[] get(Component parent, Object key) {
+        Map<Object, int[]> map = paths.get(parent);
+        return map == null ? null : map.get(key);
+    }
+
+    /**
+     * Remembers the path below the parent for the key. The key must not
+     * refer to the components of the tree.
+     */
+    public synchronized void put(Component parent, Object key, int[] path) {
+        paths.computeIfAbsent(parent, k -> new HashMap<>()).put(key, path);
+    }
+
+    public synchronized void remove(Component parent, Object key) {
+        Map<Object, int[]> map = paths.get(parent);
+        if (map != null && map.remove(key) != null && map.isEmpty())
+            paths.remove(parent);
+    }
+
+    public synchronized void clear() {
+        paths.clear();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.indexes;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.lang.ref.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import javax.swing.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Summarizes the component classes in each subtree of the followed trees, so
+ * that a walk can skip the subtrees that cannot hold the type it looks for.
+ * Each container keeps a bitset over the classes below {@link JComponent} of
+ * itself and its descendants, which is kept current through container events.
+ * The first 64 classes seen get a bit of their own; later classes share bits,
+ * which makes the summary answer maybe for subtrees it could have ruled out.
+ * <p>
+ * The bitsets are only changed on the event dispatch thread and can be read
+ * from any thread without locking. A menu does not report the creation of its
+ * popup, and asking for the popup creates it, so the popup of a menu without
+ * items is only summarized once container events on the default toolkit show
+ * that it got its first item.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class TypeSummary {
+
+    private static final AtomicInteger NEXT_BIT = new AtomicInteger();
+    private static final ClassValue<Long> BIT = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return 1L << (NEXT_BIT.getAndIncrement() & 63);
+        }
+    };
+    private static final ClassValue<Long> BITS = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long bits = 0;
+            for (Class<?> c = type; !isUniversal(c); c = c.getSuperclass())
+                bits |= BIT.get(c);
+            return bits;
+        }
+    };
+
+    private final ConcurrentMap<Key, Long> masks = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Component> collected = new ReferenceQueue<>();
+    private final Set<JMenu> pending = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Listener listener = new Listener();
+
+    /**
+     * Returns true for the types every component in a tree may be an instance
+     * of, for which no subtree can be skipped.
+     */
+    private static boolean isUniversal(Class<?> type) {
+        return type == null || type.isInterface() || type.isAssignableFrom(JComponent.class);
+    }
+
+    /**
+     * Summarizes the tree below the specified root and keeps it current.
+     */
+    public TypeSummary add(Component root) {
+        SwingThreads.run(() -> {
+            synchronized (this) {
+                register(root);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Stops summarizing the tree below the specified root.
+     */
+    public void remove(Component root) {
+        SwingThreads.run(() -> {
+            synchronized (this) {
+                unregister(root);
+            }
+        });
+    }
+
+    /**
+     * Returns false only if neither the specified component nor any of its
+     * descendants is an instance of the specified type. Components outside
+     * the summarized trees may contain anything.
+     */
+    public boolean mayContain(Component subtree, Class<?> type) {
+        if (isUniversal(type))
+            return true;
+        Long mask = masks.get(new Key(subtree, null));
+        return mask == null || (mask & BIT.get(type)) != 0;
+    }
+
+    private Long get(Component c) {
+        return masks.get(new Key(c, null));
+    }
+
+    private void put(Component c, long mask) {
+        for (Reference<?> ref; (ref = collected.poll()) != null;)
+            masks.remove((Key) ref);
+        masks.put(new Key(c, collected), mask);
+    }
+
+    private long register(Component c) {
+        Long registered = get(c);
+        if (registered != null)
+            return registered;
+        long mask = BITS.get(c.getClass());
+        if (c instanceof JMenu) {
+            JMenu menu = (JMenu) c;
+            if (menu.getMenuComponentCount() > 0)
+                mask |= register(menu.getPopupMenu());
+            else
+                await(menu);
+        } else if (c instanceof Container) {
+            Container container = (Container) c;
+            container.addContainerListener(listener);
+            for (int i = 0, n = container.getComponentCount(); i < n; ++i)
+                mask |= register(container.getComponent(i));
+        } else
+            return mask;
+        put(c, mask);
+        return mask;
+    }
+
+    private void unregister(Component c) {
+        if (masks.remove(new Key(c, null)) == null)
+            return;
+        if (c instanceof JMenu) {
+            if (!stopAwaiting((JMenu) c))
+                unregister(((JMenu) c).getPopupMenu());
+        } else if (c instanceof Container) {
+            Container container = (Container) c;
+            container.removeContainerListener(listener);
+            for (int i = 0, n = container.getComponentCount(); i < n; ++i)
+                unregister(container.getComponent(i));
+        }
+    }
+
+    /**
+     * Follows the popup of a menu without items until it gets its first item.
+     */
+    private void await(JMenu menu) {
+        if (pending.isEmpty())
+            Toolkit.getDefaultToolkit().addAWTEventListener(listener, AWTEvent.CONTAINER_EVENT_MASK);
+        pending.add(menu);
+    }
+
+    private boolean stopAwaiting(JMenu menu) {
+        if (!pending.remove(menu))
+            return false;
+        if (pending.isEmpty())
+            Toolkit.getDefaultToolkit().removeAWTEventListener(listener);
+        return true;
+    }
+
+    private void filled(JMenu menu) {
+        if (stopAwaiting(menu))
+            added(menu, menu.getPopupMenu());
+    }
+
+    private void added(Component parent, Component child) {
+        long bits = register(child);
+        for (Component node = parent; node != null; node = ComponentIndex.parentOf(node)) {
+            Long mask = get(node);
+            if (mask == null || (mask | bits) == mask)
+                return;
+            put(node, mask | bits);
+        }
+    }
+
+    private void removed(Container parent, Component child) {
+        unregister(child);
+        for (Component node = parent; node != null; node = ComponentIndex.parentOf(node)) {
+            Long mask = get(node);
+            if (mask == null)
+                return;
+            long summary = summarize(node);
+            if (summary == mask)
+                return;
+            put(node, summary);
+        }
+    }
+
+    private long summarize(Component c) {
+        long mask = BITS.get(c.getClass());
+        if (c instanceof JMenu)
+            return pending.contains(c) ? mask : mask | maskOf(((JMenu) c).getPopupMenu());
+        Container container = (Container) c;
+        for (int i = 0, n = container.getComponentCount(); i < n; ++i)
+            mask |= maskOf(container.getComponent(i));
+        return mask;
+    }
+
+    private long maskOf(Component c) {
+        Long mask = get(c);
+        return mask != null ? mask : BITS.get(c.getClass());
+    }
+
+    /**
+     * Holds a component weakly and equals the keys that hold the same
+     * component, so that the summary can be read without a lock.
+     */
+    private static class Key
+            extends WeakReference<Component> {
+
+        private final int hash;
+
+        private Key(Component c, ReferenceQueue<Component> queue) {
+            super(c, queue);
+            hash = System.identityHashCode(c);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Component c = get();
+            return c != null && c == ((Key) obj).get();
+        }
+    }
+
+    private class Listener
+            implements AWTEventListener, ContainerListener {
+
+        @Override
+        public void eventDispatched(AWTEvent e) {
+            if (e.getID() != ContainerEvent.COMPONENT_ADDED || !(e.getSource() instanceof JPopupMenu))
+                return;
+            Component invoker = ((JPopupMenu) e.getSource()).getInvoker();
+            if (invoker instanceof JMenu)
+                synchronized (TypeSummary.this) {
+                    filled((JMenu) invoker);
+                }
+        }
+
+        @Override
+        public void componentAdded(ContainerEvent e) {
+            synchronized (TypeSummary.this) {
+                added(e.getContainer(), e.getChild());
+            }
+        }
+
+        @Override
+        public void componentRemoved(ContainerEvent e) {
+            synchronized (TypeSummary.this) {
+                removed(e.getContainer(), e.getChild());
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.indexes;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.beans.*;
+import java.lang.ref.*;
+import java.util.*;
+import java.util.List;
+import org.kruijff.utilities.swing.*;
+import org.kruijff.utilities.swing.matchers.*;
+
+/**
+ * Keeps the open windows by title and by owner. The registry follows the
+ * windows through window events on the default toolkit and title property
+ * changes, and forgets a window when it is disposed. Windows are held through
+ * weak references.
+ * <p>
+ * Start the registry before waiting for windows, so it sees each window event
+ * before the waiters do.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class WindowRegistry {
+
+    private static final String TITLE = "title";
+
+    private final Map<Window, String> registered = new WeakHashMap<>();
+    private final Map<String, List<Reference<Window>>> titled = new HashMap<>();
+    private final Map<Window, List<Reference<Window>>> owned = new WeakHashMap<>();
+    private final Listener listener = new Listener();
+
+    /**
+     * Registers the windows that are open now and follows the windows that
+     * open and close from now on.
+     */
+    public WindowRegistry start() {
+        SwingThreads.run(() -> {
+            Toolkit.getDefaultToolkit().addAWTEventListener(listener, AWTEvent.WINDOW_EVENT_MASK);
+            synchronized (this) {
+                for (Window w : Window.getWindows())
+                    if (w.isDisplayable())
+                        register(w);
+            }
+        });
+        return this;
+    }
+
+    public void stop() {
+        SwingThreads.run(() -> {
+            Toolkit.getDefaultToolkit().removeAWTEventListener(listener);
+            synchronized (this) {
+                for (Window w : new ArrayList<>(registered.keySet()))
+                    unregister(w);
+            }
+        });
+    }
+
+    /**
+     * Returns the open windows of the specified type with the specified title
+     * that are owned by the owner, directly or indirectly, in the order they
+     * were opened.
+     */
+    public synchronized <T extends Window> List<T> titled(Window owner, String title, Class<T> type) {
+        List<Reference<Window>> list = titled.get(title);
+        if (list == null)
+            return Collections.emptyList();
+
+        List<T> found = new ArrayList<>(1);
+        for (Iterator<Reference<Window>> it = list.iterator(); it.hasNext();) {
+            Window w = it.next().get();
+            if (w == null)
+                it.remove();
+            else if (type.isInstance(w) && w.isDisplayable() && isOwnedBy(w, owner))
+                found.add(type.cast(w));
+        }
+        return found;
+    }
+
+    /**
+     * Returns the open windows of the specified type owned by the owner,
+     * directly or indirectly, depth first in the order they were opened.
+     */
+    public synchronized <T extends Window> List<T> owned(Window owner, Class<T> type) {
+        List<T> found = new ArrayList<>();
+        collectOwned(owner, type, found);
+        return found;
+    }
+
+    private <T extends Window> void collectOwned(Window owner, Class<T> type, List<T> found) {
+        List<Reference<Window>> list = owned.get(owner);
+        if (list == null)
+            return;
+        for (Reference<Window> ref : list) {
+            Window w = ref.get();
+            if (w == null || !w.isDisplayable())
+                continue;
+            if (type.isInstance(w))
+                found.add(type.cast(w));
+            collectOwned(w, type, found);
+        }
+    }
+
+    private static boolean isOwnedBy(Window w, Window owner) {
+        for (Window node = w.getOwner(); node != null; node = node.getOwner())
+            if (node == owner)
+                return true;
+        return false;
+    }
+
+    private static String titleOf(Window w) {
+        Object title = TitleMatcher.titleOf(w);
+        return title instanceof String ? (String) title : null;
+    }
+
+    private void register(Window w) {
+        if (registered.containsKey(w))
+            return;
+        String title = titleOf(w);
+        registered.put(w, title == null ? "" : title);
+        put(titled, title, w);
+        if (w.getOwner() != null)
+            owned.computeIfAbsent(w.getOwner(), key -> new ArrayList<>(1)).add(new WeakReference<>(w));
+        w.addPropertyChangeListener(TITLE, listener);
+    }
+
+    private void unregister(Window w) {
+        String title = registered.remove(w);
+        if (title == null)
+            return;
+        delete(titled, title, w);
+        if (w.getOwner() != null)
+            delete(owned, w.getOwner(), w);
+        w.removePropertyChangeListener(TITLE, listener);
+    }
+
+    private static <K> void put(Map<K, List<Reference<Window>>> map, K key, Window w) {
+        if (key != null)
+            map.computeIfAbsent(key, k -> new ArrayList<>(1)).add(new WeakReference<>(w));
+    }
+
+    private static <K> void delete(Map<K, List<Reference<Window>>> map, K key, Window w) {
+        List<Reference<Window>> list = map.get(key);
+        if (list == null)
+            return;
+        list.removeIf(ref -> ref.get() == null || ref.get() == w);
+        if (list.isEmpty())
+            map.remove(key);
+    }
+
+    private class Listener
+            implements AWTEventListener, PropertyChangeListener {
+
+        @Override
+        public void eventDispatched(AWTEvent event) {
+            Window w = ((WindowEvent) event).getWindow();
+            synchronized (WindowRegistry.this) {
+                if (event.getID() == WindowEvent.WINDOW_OPENED)
+                    register(w);
+                else if (event.getID() == WindowEvent.WINDOW_CLOSED)
+                    unregister(w);
+            }
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent e) {
+            Window w = (Window) e.getSource();
+            synchronized (WindowRegistry.this) {
+                if (!registered.containsKey(w))
+                    return;
+                delete(titled, registered.get(w), w);
+                String title = titleOf(w);
+                registered.put(w, title == null ? "" : title);
+                put(titled, title, w);
+            }
+        }
+    }
+}
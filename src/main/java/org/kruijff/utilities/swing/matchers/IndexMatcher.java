@@ -30,29 +30,50 @@
 package org.kruijff.utilities.swing.matchers;
 
 import java.awt.*;
+import java.util.concurrent.atomic.*;
 import org.kruijff.utilities.swing.*;
 
 /**
+ * Matches the n-th component of the type in the order of the walk. The count
+ * is kept in the {@link MatchContext}, so an instance can be shared between
+ * walks that pass a context.
+ *
  * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
  */
 public class IndexMatcher<T extends Component>
         implements SwingUtil.Matcher<T> {
 
-    private int index;
+    private final int index;
     private final Class<T> type;
+    private final AtomicInteger candidates = new AtomicInteger();
 
     public IndexMatcher(int index, Class<T> type) {
         this.index = index;
         this.type = type;
     }
 
+    /**
+     * Returns true if the child is the n-th component of the type over all
+     * calls without a context, as in a single sequential walk. Use a new
+     * instance for each such walk.
+     */
     @Override
     public boolean childMatches(Component child) {
-        if (type.isAssignableFrom(child.getClass()))
-            if (index == 0)
-                return true;
-            else
-                --index;
-        return false;
+        return type.isAssignableFrom(child.getClass()) && candidates.getAndIncrement() == index;
+    }
+
+    @Override
+    public boolean childMatches(Component child, MatchContext context) {
+        return type.isAssignableFrom(child.getClass()) && context.countCandidate() == index;
+    }
+
+    @Override
+    public boolean requiresContext() {
+        return true;
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
     }
 }
@@ -50,4 +50,22 @@ public class NameMatcher<T extends Component>
     public boolean childMatches(Component child) {
         return type.isAssignableFrom(child.getClass()) && name.equals(child.getName());
     }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof NameMatcher))
+            return false;
+        NameMatcher<?> other = (NameMatcher<?>) obj;
+        return name.equals(other.name) && type == other.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + type.hashCode();
+    }
 }
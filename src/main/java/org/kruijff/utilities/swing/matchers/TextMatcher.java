@@ -0,0 +1,87 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.matchers;
+
+import java.awt.*;
+import javax.swing.*;
+import javax.swing.text.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class TextMatcher<T extends Component>
+        implements SwingUtil.Matcher<T> {
+
+    private final String text;
+    private final Class<T> type;
+
+    public TextMatcher(String text, Class<T> type) {
+        this.text = text;
+        this.type = type;
+    }
+
+    @Override
+    public boolean childMatches(Component child) {
+        return type.isAssignableFrom(child.getClass()) && text.equals(textOf(child));
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * Returns the text of buttons, labels and text components, or null for
+     * other components.
+     */
+    public static String textOf(Component c) {
+        return c instanceof AbstractButton ? ((AbstractButton) c).getText()
+               : c instanceof JLabel ? ((JLabel) c).getText()
+                 : c instanceof JTextComponent ? ((JTextComponent) c).getText()
+                   : c instanceof Label ? ((Label) c).getText()
+                     : c instanceof Button ? ((Button) c).getLabel()
+                       : c instanceof TextComponent ? ((TextComponent) c).getText()
+                         : null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof TextMatcher))
+            return false;
+        TextMatcher<?> other = (TextMatcher<?>) obj;
+        return text.equals(other.text) && type == other.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * text.hashCode() + type.hashCode();
+    }
+}
@@ -30,8 +30,8 @@
 package org.kruijff.utilities.swing.matchers;
 
 import java.awt.*;
+import java.lang.invoke.*;
 import java.lang.reflect.*;
-import java.util.*;
 import org.kruijff.utilities.swing.*;
 
 /**
@@ -40,6 +40,20 @@ import org.kruijff.utilities.swing.*;
 public class TitleMatcher<T extends Window>
         implements SwingUtil.Matcher<T> {
 
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Component.class);
+    private static final MethodHandle NO_TITLE = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Component.class);
+
+    private static final ClassValue<MethodHandle> TITLE_ACCESSORS = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (Method m : type.getMethods())
+                if (methodMatches(m, "getTitle", String.class))
+                    return unreflect(m);
+            return NO_TITLE;
+        }
+    };
+
     private final String title;
     private final Class<T> type;
 
@@ -50,24 +64,59 @@ public class TitleMatcher<T extends Window>
 
     @Override
     public boolean childMatches(Component child) {
-        if (!type.isAssignableFrom(child.getClass()))
+        return type.isAssignableFrom(child.getClass()) && title.equals(titleOf(child));
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof TitleMatcher))
             return false;
+        TitleMatcher<?> other = (TitleMatcher<?>) obj;
+        return title.equals(other.title) && type == other.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * title.hashCode() + type.hashCode();
+    }
+
+    /**
+     * Returns the title of the component, or null when it has no
+     * {@code getTitle()} method.
+     */
+    public static Object titleOf(Component child) {
+        if (child instanceof Frame)
+            return ((Frame) child).getTitle();
+        if (child instanceof Dialog)
+            return ((Dialog) child).getTitle();
 
         try {
-            Class<?>[] parameterTypes = new Class<?>[0];
-            Class<?> returnType = String.class;
-            for (Method m : child.getClass().getMethods())
-                if (methodMatches(m, "getTitle", parameterTypes, returnType))
-                    return title.equals((String) m.invoke(child));
-            return false;
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
+            return (Object) TITLE_ACCESSORS.get(child.getClass()).invokeExact(child);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
             throw new RuntimeException(ex);
         }
     }
 
-    private boolean methodMatches(Method m, String name, Class<?>[] parameterTypes, Class<?> returnType) {
+    private static boolean methodMatches(Method m, String name, Class<?> returnType) {
         return m.getName().equals(name)
-                && Arrays.equals(m.getParameterTypes(), parameterTypes)
+                && m.getParameterCount() == 0
                 && m.getReturnType().isAssignableFrom(returnType);
     }
+
+    private static MethodHandle unreflect(Method m) {
+        try {
+            if (!Modifier.isPublic(m.getDeclaringClass().getModifiers()))
+                m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m).asType(ACCESSOR_TYPE);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 }
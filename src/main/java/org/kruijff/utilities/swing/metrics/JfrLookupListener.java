@@ -0,0 +1,87 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.metrics;
+
+import java.util.concurrent.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Emits a flight recorder event for every fetch. The event begins when the
+ * fetch starts and ends when it found its target or timed out, so that it
+ * lines up with the other events of the thread. The flight recorder is part
+ * of Java 11 and of Java 8 from update 262; check {@link #isAvailable()}
+ * before creating this listener on older runtimes.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class JfrLookupListener
+        implements SwingUtil.LookupListener {
+
+    private final ConcurrentMap<Long, LookupEvent> started = new ConcurrentHashMap<>();
+
+    public static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrLookupListener.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void lookupStarted(long id) {
+        LookupEvent event = new LookupEvent();
+        if (!event.isEnabled())
+            return;
+        event.begin();
+        started.put(id, event);
+    }
+
+    /**
+     * Commits the event of the fetch. Fetches that started before the event
+     * was enabled are not recorded.
+     */
+    @Override
+    public void lookupFinished(LookupStatistics statistics) {
+        LookupEvent event = started.remove(statistics.getId());
+        if (event == null)
+            return;
+        event.lookup = statistics.getLookup();
+        event.matcher = statistics.getMatcher();
+        event.target = statistics.getTarget();
+        event.found = statistics.isFound();
+        event.attempts = statistics.getAttempts();
+        event.nodesVisited = statistics.getNodesVisited();
+        event.traversalTime = statistics.getTraversalTime(TimeUnit.NANOSECONDS);
+        event.waitingTime = statistics.getWaitingTime(TimeUnit.NANOSECONDS);
+        event.totalTime = statistics.getTotalTime(TimeUnit.NANOSECONDS);
+        event.commit();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.metrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Aggregates the statistics of all fetches in memory, per matcher type, and
+ * remembers the slowest fetches. Register one instance with every
+ * {@code SwingUtil} of a test suite and print it at the end of the run.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class LookupAggregator
+        implements SwingUtil.LookupListener {
+
+    private static final int DEFAULT_SLOWEST = 10;
+
+    private final Map<Class<?>, Summary> summaries = new ConcurrentHashMap<>();
+    private final PriorityQueue<LookupStatistics> slowest
+            = new PriorityQueue<>(Comparator.comparingLong(s -> s.getTotalTime(TimeUnit.NANOSECONDS)));
+    private final int slowestLimit;
+
+    public LookupAggregator() {
+        this(DEFAULT_SLOWEST);
+    }
+
+    /**
+     * @param slowestLimit the number of slowest fetches to remember.
+     */
+    public LookupAggregator(int slowestLimit) {
+        this.slowestLimit = slowestLimit;
+    }
+
+    @Override
+    public void lookupFinished(LookupStatistics statistics) {
+        summaries.computeIfAbsent(statistics.getMatcher(), Summary::new).record(statistics);
+        synchronized (slowest) {
+            slowest.add(statistics);
+            if (slowest.size() > slowestLimit)
+                slowest.poll();
+        }
+    }
+
+    public Collection<Summary> getSummaries() {
+        return Collections.unmodifiableCollection(summaries.values());
+    }
+
+    public Summary getSummary(Class<?> matcher) {
+        return summaries.get(matcher);
+    }
+
+    /**
+     * Returns the slowest fetches, slowest first.
+     */
+    public List<LookupStatistics> getSlowest() {
+        List<LookupStatistics> list;
+        synchronized (slowest) {
+            list = new ArrayList<>(slowest);
+        }
+        list.sort(slowest.comparator().reversed());
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Summary summary : summaries.values())
+            builder.append(summary).append('\n');
+        for (LookupStatistics statistics : getSlowest())
+            builder.append("slow: ").append(statistics).append('\n');
+        return builder.toString();
+    }
+
+    /**
+     * The latencies of the fetches with one matcher type, in nanoseconds.
+     */
+    public static class Summary {
+
+        private final Class<?> matcher;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram traversal = new LatencyHistogram();
+        private final LatencyHistogram nodes = new LatencyHistogram();
+        private final LatencyHistogram attempts = new LatencyHistogram();
+
+        private Summary(Class<?> matcher) {
+            this.matcher = matcher;
+        }
+
+        private void record(LookupStatistics statistics) {
+            total.record(statistics.getTotalTime(TimeUnit.NANOSECONDS));
+            traversal.record(statistics.getTraversalTime(TimeUnit.NANOSECONDS));
+            nodes.record(statistics.getNodesVisited());
+            attempts.record(statistics.getAttempts());
+        }
+
+        public Class<?> getMatcher() {
+            return matcher;
+        }
+
+        public LatencyHistogram getTotalTime() {
+            return total;
+        }
+
+        public LatencyHistogram getTraversalTime() {
+            return traversal;
+        }
+
+        public LatencyHistogram getNodesVisited() {
+            return nodes;
+        }
+
+        public LatencyHistogram getAttempts() {
+            return attempts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d fetches, total p50 %d us p99 %d us max %d us, traversal p50 %d us p99 %d us, nodes p99 %d, attempts p99 %d",
+                                 matcher.getSimpleName(), total.getCount(),
+                                 micros(total.getPercentile(50)), micros(total.getPercentile(99)), micros(total.getMax()),
+                                 micros(traversal.getPercentile(50)), micros(traversal.getPercentile(99)),
+                                 nodes.getPercentile(99), attempts.getPercentile(99));
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
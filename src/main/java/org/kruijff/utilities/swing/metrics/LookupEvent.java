@@ -0,0 +1,76 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * The flight recorder event of one fetch.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+@Name("org.kruijff.swingutil.Lookup")
+@Label("SwingUtil Lookup")
+@Category("SwingUtil")
+@Description("A fetch of a component by SwingUtil")
+@StackTrace(false)
+class LookupEvent
+        extends Event {
+
+    @Label("Lookup")
+    String lookup;
+
+    @Label("Matcher")
+    Class<?> matcher;
+
+    @Label("Target")
+    String target;
+
+    @Label("Found")
+    boolean found;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Nodes Visited")
+    long nodesVisited;
+
+    @Label("Traversal Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long traversalTime;
+
+    @Label("Waiting Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitingTime;
+
+    @Label("Total Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long totalTime;
+}
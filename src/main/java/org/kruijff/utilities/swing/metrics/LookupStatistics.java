@@ -0,0 +1,126 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.metrics;
+
+import java.util.concurrent.*;
+
+/**
+ * The statistics of one fetch. The traversal time is the time spent in the
+ * attempts; the rest of the total time was spent waiting between them.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class LookupStatistics {
+
+    private final long id;
+    private final String lookup;
+    private final Class<?> matcher;
+    private final String target;
+    private final boolean found;
+    private final int attempts;
+    private final long nodesVisited;
+    private final long traversalNanos;
+    private final long totalNanos;
+
+    public LookupStatistics(long id, String lookup, Class<?> matcher, String target, boolean found,
+                            int attempts, long nodesVisited, long traversalNanos, long totalNanos) {
+        this.id = id;
+        this.lookup = lookup;
+        this.matcher = matcher;
+        this.target = target;
+        this.found = found;
+        this.attempts = attempts;
+        this.nodesVisited = nodesVisited;
+        this.traversalNanos = traversalNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * Returns the number that identifies the fetch, as it was passed to
+     * {@link org.kruijff.utilities.swing.SwingUtil.LookupListener#lookupStarted}.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the fetch method, for example {@code fetchChildNamed}.
+     */
+    public String getLookup() {
+        return lookup;
+    }
+
+    public Class<?> getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Returns the name, title or index that was looked up.
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    public long getTraversalTime(TimeUnit unit) {
+        return unit.convert(traversalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getWaitingTime(TimeUnit unit) {
+        return unit.convert(Math.max(0, totalNanos - traversalNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the time from the start of the fetch until it found its target
+     * or timed out.
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return lookup + "(" + target + ") " + (found ? "found" : "not found")
+                + " after " + attempts + " attempts, " + nodesVisited + " nodes, "
+                + TimeUnit.NANOSECONDS.toMicros(traversalNanos) + " us traversal, "
+                + TimeUnit.NANOSECONDS.toMicros(totalNanos) + " us total";
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.polling;
+
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Waits at least a multiple of the time the last attempt took, so that on big
+ * trees the walks take at most a bounded share of the time.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class CostAdaptivePollStrategy
+        implements SwingUtil.PollStrategy {
+
+    private final SwingUtil.PollStrategy strategy;
+    private final double costFactor;
+
+    /**
+     * @param costFactor with 4 the walks take at most a fifth of the time.
+     */
+    public CostAdaptivePollStrategy(SwingUtil.PollStrategy strategy, double costFactor) {
+        if (costFactor < 0)
+            throw new IllegalArgumentException("costFactor must not be negative");
+        this.strategy = strategy;
+        this.costFactor = costFactor;
+    }
+
+    @Override
+    public long nextDelay(int attempts, long lastAttempt, long remaining) {
+        return Math.max(strategy.nextDelay(attempts, lastAttempt, remaining), (long) (lastAttempt * costFactor));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.polling;
+
+import java.util.concurrent.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Multiplies the delay by a factor after every attempt, up to a maximum.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class ExponentialPollStrategy
+        implements SwingUtil.PollStrategy {
+
+    private final long initial;
+    private final double factor;
+    private final long maximum;
+
+    public ExponentialPollStrategy(long initial, double factor, long maximum, TimeUnit unit) {
+        if (initial <= 0)
+            throw new IllegalArgumentException("initial must be positive");
+        if (factor < 1)
+            throw new IllegalArgumentException("factor must be at least 1");
+        if (maximum < initial)
+            throw new IllegalArgumentException("maximum must be at least initial");
+        this.initial = unit.toNanos(initial);
+        this.factor = factor;
+        this.maximum = unit.toNanos(maximum);
+    }
+
+    @Override
+    public long nextDelay(int attempts, long lastAttempt, long remaining) {
+        double delay = initial * Math.pow(factor, attempts);
+        return delay >= maximum ? maximum : (long) delay;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.polling;
+
+import java.util.concurrent.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Waits 1, 1, 2, 3, 5, 8, ... times the unit interval before the attempts.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class FibonacciPollStrategy
+        implements SwingUtil.PollStrategy {
+
+    private static final int MAX_TERM = 90;
+
+    private final long unitInterval;
+
+    public FibonacciPollStrategy(long unitInterval, TimeUnit unit) {
+        if (unitInterval <= 0)
+            throw new IllegalArgumentException("unitInterval must be positive");
+        this.unitInterval = unit.toNanos(unitInterval);
+    }
+
+    @Override
+    public long nextDelay(int attempts, long lastAttempt, long remaining) {
+        long fibonacci = fibonacci(Math.min(attempts + 1, MAX_TERM));
+        return fibonacci > Long.MAX_VALUE / unitInterval ? Long.MAX_VALUE : fibonacci * unitInterval;
+    }
+
+    private static long fibonacci(int n) {
+        long previous = 0;
+        long current = 1;
+        for (int i = 1; i < n; ++i) {
+            long next = previous + current;
+            previous = current;
+            current = next;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.polling;
+
+import java.util.concurrent.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Never waits longer than a fraction of the time that remains until the
+ * timeout, so a growing delay does not skip the last chances to find the
+ * component. Near the timeout the delay does not drop below one millisecond,
+ * unless the decorated strategy asks for less, so the waiter does not spin.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class RemainingTimeCappedPollStrategy
+        implements SwingUtil.PollStrategy {
+
+    private static final long MINIMUM_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SwingUtil.PollStrategy strategy;
+    private final double fraction;
+
+    public RemainingTimeCappedPollStrategy(SwingUtil.PollStrategy strategy, double fraction) {
+        if (fraction <= 0 || fraction > 1)
+            throw new IllegalArgumentException("fraction must be in (0, 1]");
+        this.strategy = strategy;
+        this.fraction = fraction;
+    }
+
+    @Override
+    public long nextDelay(int attempts, long lastAttempt, long remaining) {
+        long delay = strategy.nextDelay(attempts, lastAttempt, remaining);
+        if (remaining == Long.MAX_VALUE)
+            return delay;
+        return Math.min(delay, Math.max((long) (remaining * fraction), MINIMUM_DELAY));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.selectors;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import org.kruijff.utilities.swing.matchers.*;
+
+/**
+ * One step of a selector, for example {@code JButton[text='OK']:enabled}.
+ * Immutable and thread safe.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+final class Compound {
+
+    static final int NO_INDEX = -1;
+
+    private final String type;
+    private final ClassValue<Boolean> typeMatches;
+    private final List<Condition> conditions;
+    private final boolean visible;
+    private final boolean showing;
+    private final boolean enabled;
+    private final int index;
+
+    Compound(String type, List<Condition> conditions, boolean visible, boolean showing, boolean enabled, int index) {
+        this.type = type;
+        this.typeMatches = type == null ? null : new TypeMatches(type);
+        this.conditions = Collections.unmodifiableList(new ArrayList<>(conditions));
+        this.visible = visible;
+        this.showing = showing;
+        this.enabled = enabled;
+        this.index = index;
+    }
+
+    boolean requiresShowing() {
+        return showing;
+    }
+
+    int index() {
+        return index;
+    }
+
+    /**
+     * Returns true if the component matches this step, apart from its index.
+     */
+    boolean matches(Component c) {
+        if (typeMatches != null && !typeMatches.get(c.getClass()))
+            return false;
+        if (visible && !c.isVisible() || showing && !c.isShowing() || enabled && !c.isEnabled())
+            return false;
+        for (Condition condition : conditions)
+            if (!condition.test(c))
+                return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(type == null ? "*" : type);
+        for (Condition condition : conditions)
+            builder.append(condition);
+        if (visible)
+            builder.append(":visible");
+        if (showing)
+            builder.append(":showing");
+        if (enabled)
+            builder.append(":enabled");
+        if (index != NO_INDEX)
+            builder.append(":nth(").append(index).append(')');
+        return builder.toString();
+    }
+
+    /**
+     * Matches a class when the simple or full name of the class, one of its
+     * super classes or one of its interfaces equals the type.
+     */
+    private static class TypeMatches
+            extends ClassValue<Boolean> {
+
+        private final String type;
+
+        private TypeMatches(String type) {
+            this.type = type;
+        }
+
+        @Override
+        protected Boolean computeValue(Class<?> c) {
+            for (Class<?> t = c; t != null; t = t.getSuperclass()) {
+                if (type.equals(t.getSimpleName()) || type.equals(t.getName()))
+                    return true;
+                for (Class<?> i : t.getInterfaces())
+                    if (type.equals(i.getSimpleName()) || type.equals(i.getName()))
+                        return true;
+            }
+            return false;
+        }
+    }
+
+    enum Attribute {
+        NAME {
+            @Override
+            Object valueOf(Component c) {
+                return c.getName();
+            }
+        },
+        TEXT {
+            @Override
+            Object valueOf(Component c) {
+                return TextMatcher.textOf(c);
+            }
+        },
+        TITLE {
+            @Override
+            Object valueOf(Component c) {
+                return TitleMatcher.titleOf(c);
+            }
+        };
+
+        abstract Object valueOf(Component c);
+
+        static Attribute of(String name) {
+            for (Attribute a : values())
+                if (a.name().equalsIgnoreCase(name))
+                    return a;
+            return null;
+        }
+    }
+
+    enum Operator {
+        EQUALS("=") {
+            @Override
+            boolean test(String actual, String expected) {
+                return actual.equals(expected);
+            }
+        },
+        CONTAINS("*=") {
+            @Override
+            boolean test(String actual, String expected) {
+                return actual.contains(expected);
+            }
+        },
+        STARTS_WITH("^=") {
+            @Override
+            boolean test(String actual, String expected) {
+                return actual.startsWith(expected);
+            }
+        },
+        ENDS_WITH("$=") {
+            @Override
+            boolean test(String actual, String expected) {
+                return actual.endsWith(expected);
+            }
+        };
+
+        final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        abstract boolean test(String actual, String expected);
+    }
+
+    static final class Condition {
+
+        private final Attribute attribute;
+        private final Operator operator;
+        private final String value;
+
+        Condition(Attribute attribute, Operator operator, String value) {
+            this.attribute = attribute;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        boolean test(Component c) {
+            Object actual = attribute.valueOf(c);
+            return actual instanceof String && operator.test((String) actual, value);
+        }
+
+        @Override
+        public String toString() {
+            return "[" + attribute.name().toLowerCase(Locale.ROOT) + operator.symbol + "'" + value.replace("'", "\\'") + "']";
+        }
+    }
+}
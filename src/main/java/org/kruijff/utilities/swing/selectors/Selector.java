@@ -0,0 +1,203 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.selectors;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * A compiled selector, such as {@code "JPanel[name='form'] > JButton[text^='Save']:enabled"}.
+ * Steps are separated by whitespace for any descendant or by {@code >} for a
+ * direct child. A leading {@code >} anchors the first step to the children of
+ * the parent of the search. Selectors are immutable, thread safe and the most
+ * recently used ones are cached by {@link #compile(String)}; each walk over a tree uses its own
+ * {@link Evaluation}, which tracks all steps at once as bit masks so the tree
+ * is walked only once.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public final class Selector {
+
+    static final int MAX_STEPS = 63;
+
+    private static final int CACHE_SIZE = 256;
+    private static final Map<String, Selector> CACHE = new LinkedHashMap<String, Selector>(CACHE_SIZE * 2, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Selector> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final String source;
+    private final Compound[] compounds;
+    private final boolean anchored;
+    private final long childPrev;
+    private final long descPrev;
+    private final long showingMask;
+    private final long allMask;
+    private final long lastBit;
+    private final boolean counted;
+
+    /**
+     * Returns the compiled selector for the specified source. Only the most
+     * recently used selectors are cached; callers that build selectors from
+     * data should compile them once and keep the instance.
+     *
+     * @throws org.kruijff.utilities.swing.exceptions.SelectorSyntaxException if
+     * the source is not a valid selector
+     */
+    public static Selector compile(String source) {
+        Objects.requireNonNull(source, "source");
+        Selector selector;
+        synchronized (CACHE) {
+            selector = CACHE.get(source);
+        }
+        if (selector == null) {
+            selector = new SelectorParser(source).parse();
+            synchronized (CACHE) {
+                Selector previous = CACHE.putIfAbsent(source, selector);
+                if (previous != null)
+                    selector = previous;
+            }
+        }
+        return selector;
+    }
+
+    Selector(String source, List<Compound> compounds, List<Boolean> childAxes) {
+        this.source = source;
+        this.compounds = compounds.toArray(new Compound[compounds.size()]);
+        this.anchored = childAxes.get(0);
+        long child = 0;
+        long desc = 0;
+        long showing = 0;
+        boolean count = false;
+        for (int i = 0; i < this.compounds.length; ++i) {
+            if (i > 0) {
+                if (childAxes.get(i))
+                    child |= 1L << i - 1;
+                else
+                    desc |= 1L << i - 1;
+            }
+            if (this.compounds[i].requiresShowing())
+                showing |= 1L << i;
+            count |= this.compounds[i].index() != Compound.NO_INDEX;
+        }
+        this.childPrev = child;
+        this.descPrev = desc;
+        this.showingMask = showing;
+        this.allMask = (1L << this.compounds.length) - 1;
+        this.lastBit = 1L << this.compounds.length - 1;
+        this.counted = count;
+    }
+
+    /**
+     * Returns a new evaluation of this selector for a single walk.
+     */
+    public Evaluation evaluate() {
+        return new Evaluation();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * The state of a selector during a depth first walk. The walk reports each
+     * component through {@link #visit(Component, int)}, in depth first order.
+     * Not thread safe.
+     */
+    public final class Evaluation {
+
+        private static final int INITIAL_DEPTH = 16;
+
+        private long[] open = new long[INITIAL_DEPTH];
+        private long[] reach = new long[INITIAL_DEPTH];
+        private final int[] counts = counted ? new int[compounds.length] : null;
+        private int lastDepth;
+
+        private Evaluation() {
+            reset();
+        }
+
+        /**
+         * Prepares this evaluation for a new walk.
+         */
+        public void reset() {
+            open[0] = 1L;
+            reach[0] = 0L;
+            lastDepth = 0;
+            if (counts != null)
+                Arrays.fill(counts, 0);
+        }
+
+        /**
+         * Evaluates the specified component, where the children of the parent
+         * of the walk have depth 1, and returns true if it is selected.
+         */
+        public boolean visit(Component node, int depth) {
+            if (depth >= open.length) {
+                open = Arrays.copyOf(open, open.length * 2);
+                reach = Arrays.copyOf(reach, reach.length * 2);
+            }
+            long candidates = open[depth - 1];
+            long self = 0;
+            for (long pending = candidates; pending != 0; pending &= pending - 1) {
+                int i = Long.numberOfTrailingZeros(pending);
+                Compound compound = compounds[i];
+                if (compound.matches(node) && (counts == null || counted(i, compound)))
+                    self |= 1L << i;
+            }
+            long reached = reach[depth - 1] | self;
+            long next = ((self & childPrev | reached & descPrev) << 1 | (anchored ? 0 : 1)) & allMask;
+            if ((next & showingMask) != 0 && !node.isShowing())
+                next &= ~showingMask;
+            reach[depth] = reached;
+            open[depth] = next;
+            lastDepth = depth;
+            return (self & lastBit) != 0;
+        }
+
+        /**
+         * Returns true if no descendant of the last visited component can be
+         * selected.
+         */
+        public boolean canSkipChildren() {
+            return open[lastDepth] == 0;
+        }
+
+        private boolean counted(int i, Compound compound) {
+            return compound.index() == Compound.NO_INDEX || counts[i]++ == compound.index();
+        }
+    }
+}
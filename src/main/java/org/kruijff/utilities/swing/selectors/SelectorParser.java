@@ -0,0 +1,229 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.selectors;
+
+import java.util.*;
+import org.kruijff.utilities.swing.exceptions.*;
+
+/**
+ * Parses selectors of the form:
+ * <pre>
+ * selector   := ['&gt;'] compound (combinator compound)*
+ * combinator := '&gt;' | whitespace
+ * compound   := (type | '*')? ('[' attribute operator string ']' | ':' pseudo)*
+ * attribute  := 'name' | 'text' | 'title'
+ * operator   := '=' | '*=' | '^=' | '$='
+ * pseudo     := 'visible' | 'showing' | 'enabled' | 'nth(' integer ')'
+ * </pre>
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+class SelectorParser {
+
+    private final String source;
+    private int position;
+
+    SelectorParser(String source) {
+        this.source = source;
+    }
+
+    Selector parse() {
+        List<Compound> compounds = new ArrayList<>();
+        List<Boolean> childAxes = new ArrayList<>();
+        skipWhitespace();
+        boolean child = accept('>');
+        while (true) {
+            skipWhitespace();
+            childAxes.add(child);
+            compounds.add(compound());
+            boolean whitespace = skipWhitespace();
+            if (atEnd())
+                break;
+            child = accept('>');
+            if (!child && !whitespace)
+                throw error("Expected a combinator");
+        }
+        if (compounds.size() > Selector.MAX_STEPS)
+            throw error("More than " + Selector.MAX_STEPS + " steps");
+        return new Selector(source, compounds, childAxes);
+    }
+
+    private Compound compound() {
+        int start = position;
+        String type = null;
+        if (accept('*'))
+            type = null;
+        else if (isIdentifierStart())
+            type = identifier();
+
+        List<Compound.Condition> conditions = new ArrayList<>();
+        boolean visible = false;
+        boolean showing = false;
+        boolean enabled = false;
+        int index = Compound.NO_INDEX;
+        while (!atEnd()) {
+            if (accept('['))
+                conditions.add(condition());
+            else if (accept(':')) {
+                int pseudoStart = position;
+                String pseudo = word();
+                switch (pseudo) {
+                    case "visible":
+                        visible = true;
+                        break;
+                    case "showing":
+                        showing = true;
+                        break;
+                    case "enabled":
+                        enabled = true;
+                        break;
+                    case "nth":
+                        expect('(');
+                        index = integer();
+                        expect(')');
+                        break;
+                    default:
+                        position = pseudoStart;
+                        throw error("Unknown pseudo class :" + pseudo);
+                }
+            } else
+                break;
+        }
+        if (position == start)
+            throw error("Expected a type, attribute or pseudo class");
+        return new Compound(type, conditions, visible, showing, enabled, index);
+    }
+
+    private Compound.Condition condition() {
+        skipWhitespace();
+        int attributeStart = position;
+        String name = word();
+        Compound.Attribute attribute = Compound.Attribute.of(name);
+        if (attribute == null) {
+            position = attributeStart;
+            throw error("Unknown attribute " + name);
+        }
+        skipWhitespace();
+        Compound.Operator operator = operator();
+        skipWhitespace();
+        String value = string();
+        skipWhitespace();
+        expect(']');
+        return new Compound.Condition(attribute, operator, value);
+    }
+
+    private Compound.Operator operator() {
+        for (Compound.Operator operator : Compound.Operator.values())
+            if (source.startsWith(operator.symbol, position)) {
+                position += operator.symbol.length();
+                return operator;
+            }
+        throw error("Expected one of =, *=, ^= or $=");
+    }
+
+    private String string() {
+        if (atEnd() || source.charAt(position) != '\'' && source.charAt(position) != '"')
+            throw error("Expected a quoted string");
+        char quote = source.charAt(position++);
+        StringBuilder builder = new StringBuilder();
+        while (!atEnd()) {
+            char c = source.charAt(position++);
+            if (c == quote)
+                return builder.toString();
+            if (c == '\\' && !atEnd())
+                c = source.charAt(position++);
+            builder.append(c);
+        }
+        throw error("Unterminated string");
+    }
+
+    private int integer() {
+        int start = position;
+        while (!atEnd() && Character.isDigit(source.charAt(position)))
+            ++position;
+        if (start == position)
+            throw error("Expected an integer");
+        try {
+            return Integer.parseInt(source.substring(start, position));
+        } catch (NumberFormatException ex) {
+            position = start;
+            throw error("Integer too large");
+        }
+    }
+
+    private String identifier() {
+        if (!isIdentifierStart())
+            throw error("Expected an identifier");
+        int start = position++;
+        while (!atEnd() && (Character.isJavaIdentifierPart(source.charAt(position)) || source.charAt(position) == '.'))
+            ++position;
+        return source.substring(start, position);
+    }
+
+    private String word() {
+        int start = position;
+        while (!atEnd() && Character.isLetter(source.charAt(position)))
+            ++position;
+        if (start == position)
+            throw error("Expected a name");
+        return source.substring(start, position);
+    }
+
+    private boolean isIdentifierStart() {
+        return !atEnd() && Character.isJavaIdentifierStart(source.charAt(position));
+    }
+
+    private boolean skipWhitespace() {
+        int start = position;
+        while (!atEnd() && Character.isWhitespace(source.charAt(position)))
+            ++position;
+        return position > start;
+    }
+
+    private boolean accept(char c) {
+        if (atEnd() || source.charAt(position) != c)
+            return false;
+        ++position;
+        return true;
+    }
+
+    private void expect(char c) {
+        if (!accept(c))
+            throw error("Expected '" + c + "'");
+    }
+
+    private boolean atEnd() {
+        return position >= source.length();
+    }
+
+    private SelectorSyntaxException error(String message) {
+        return new SelectorSyntaxException(source, position, message);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.states;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.beans.*;
+import java.util.function.*;
+import javax.swing.*;
+import javax.swing.event.*;
+import javax.swing.text.*;
+import org.kruijff.utilities.swing.*;
+import org.kruijff.utilities.swing.cells.*;
+import org.kruijff.utilities.swing.matchers.*;
+
+/**
+ * Ready made states to wait for with {@link SwingUtil#awaitState}. Each state
+ * is checked again only after the event that reports a change of what it
+ * looks at: a property change, a document change, a component event or a
+ * model change. The heavyweight AWT {@link Label}, {@link Button} and
+ * {@link TextComponent} do not report changes of their text, so text states
+ * of these components are checked every {@value #POLL_INTERVAL} ms instead.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public final class States {
+
+    static final int POLL_INTERVAL = 50;
+
+    private States() {
+    }
+
+    /**
+     * The text of a button, label or text component equals the text.
+     */
+    public static SwingUtil.State<Component> text(String text) {
+        return new Condition<>("text '" + text + "'", c -> text.equals(TextMatcher.textOf(c)), States::textChanges);
+    }
+
+    /**
+     * The text of a button, label or text component matches the predicate.
+     */
+    public static SwingUtil.State<Component> textMatching(Predicate<String> predicate) {
+        return new Condition<>("text matching " + predicate, c -> predicate.test(TextMatcher.textOf(c)), States::textChanges);
+    }
+
+    public static SwingUtil.State<Component> enabled(boolean enabled) {
+        return new Condition<>(enabled ? "enabled" : "disabled", c -> c.isEnabled() == enabled, c -> properties(c, "enabled"));
+    }
+
+    public static SwingUtil.State<Component> visible(boolean visible) {
+        return new Condition<>(visible ? "visible" : "hidden", c -> c.isVisible() == visible, States::visibilityChanges);
+    }
+
+    public static SwingUtil.State<AbstractButton> selected(boolean selected) {
+        return new Condition<>(selected ? "selected" : "deselected", c -> c.isSelected() == selected, States::selectionChanges);
+    }
+
+    /**
+     * The table shows the number of rows, after its row sorter, if any,
+     * filtered them.
+     */
+    public static SwingUtil.State<JTable> rowCount(int count) {
+        return rowCount(n -> n == count, "row count " + count);
+    }
+
+    /**
+     * The number of rows the table shows matches the predicate.
+     */
+    public static SwingUtil.State<JTable> rowCount(IntPredicate predicate) {
+        return rowCount(predicate, "row count matching " + predicate);
+    }
+
+    private static SwingUtil.State<JTable> rowCount(IntPredicate predicate, String description) {
+        return new Condition<>(description, t -> predicate.test(t.getRowCount()), ModelScanner::rowChangesOf);
+    }
+
+    /**
+     * The predicate holds for the component, checked after each change of a
+     * bound property of the component. Heavyweight AWT components fire no
+     * property change for their text or label, so use {@link #text} for them.
+     */
+    public static <C extends Component> SwingUtil.State<C> of(Predicate<? super C> predicate) {
+        return new Condition<>("state matching " + predicate, predicate, c -> properties(c));
+    }
+
+    /**
+     * Reports the changes of the specified properties, or of all properties
+     * when none are specified.
+     */
+    private static SwingUtil.ChangeSource properties(Component c, String... names) {
+        return listener -> {
+            PropertyChangeListener onChange = e -> listener.run();
+            SwingThreads.run(() -> {
+                if (names.length == 0)
+                    c.addPropertyChangeListener(onChange);
+                for (String name : names)
+                    c.addPropertyChangeListener(name, onChange);
+            });
+            return () -> SwingThreads.run(() -> {
+                if (names.length == 0)
+                    c.removePropertyChangeListener(onChange);
+                for (String name : names)
+                    c.removePropertyChangeListener(name, onChange);
+            });
+        };
+    }
+
+    private static SwingUtil.ChangeSource textChanges(Component c) {
+        if (c instanceof Label || c instanceof Button || c instanceof TextComponent)
+            return polling();
+        if (!(c instanceof JTextComponent))
+            return properties(c, "text", "label");
+        JTextComponent text = (JTextComponent) c;
+        return listener -> {
+            DocumentListener onEdit = new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void removeUpdate(DocumentEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void changedUpdate(DocumentEvent e) {
+                    listener.run();
+                }
+            };
+            PropertyChangeListener onDocument = e -> {
+                if (e.getOldValue() != null)
+                    ((Document) e.getOldValue()).removeDocumentListener(onEdit);
+                if (e.getNewValue() != null)
+                    ((Document) e.getNewValue()).addDocumentListener(onEdit);
+                listener.run();
+            };
+            SwingThreads.run(() -> {
+                text.addPropertyChangeListener("document", onDocument);
+                text.getDocument().addDocumentListener(onEdit);
+            });
+            return () -> SwingThreads.run(() -> {
+                text.removePropertyChangeListener("document", onDocument);
+                text.getDocument().removeDocumentListener(onEdit);
+            });
+        };
+    }
+
+    /**
+     * Reports a change at a fixed interval, for components that do not report
+     * the change.
+     */
+    private static SwingUtil.ChangeSource polling() {
+        return listener -> {
+            Timer timer = new Timer(POLL_INTERVAL, e -> listener.run());
+            timer.start();
+            return timer::stop;
+        };
+    }
+
+    private static SwingUtil.ChangeSource visibilityChanges(Component c) {
+        return listener -> {
+            ComponentListener onChange = new ComponentAdapter() {
+                @Override
+                public void componentShown(ComponentEvent e) {
+                    listener.run();
+                }
+
+                @Override
+                public void componentHidden(ComponentEvent e) {
+                    listener.run();
+                }
+            };
+            SwingThreads.run(() -> c.addComponentListener(onChange));
+            return () -> SwingThreads.run(() -> c.removeComponentListener(onChange));
+        };
+    }
+
+    private static SwingUtil.ChangeSource selectionChanges(AbstractButton button) {
+        return listener -> {
+            ItemListener onChange = e -> listener.run();
+            SwingThreads.run(() -> button.addItemListener(onChange));
+            return () -> SwingThreads.run(() -> button.removeItemListener(onChange));
+        };
+    }
+
+    private static class Condition<C extends Component>
+            implements SwingUtil.State<C> {
+
+        private final String description;
+        private final Predicate<? super C> predicate;
+        private final Function<? super C, SwingUtil.ChangeSource> changes;
+
+        private Condition(String description, Predicate<? super C> predicate,
+                          Function<? super C, SwingUtil.ChangeSource> changes) {
+            this.description = description;
+            this.predicate = predicate;
+            this.changes = changes;
+        }
+
+        @Override
+        public boolean isReachedBy(C component) {
+            return predicate.test(component);
+        }
+
+        @Override
+        public SwingUtil.ChangeSource changesOf(C component) {
+            return changes.apply(component);
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
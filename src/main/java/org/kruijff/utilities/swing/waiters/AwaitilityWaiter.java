@@ -0,0 +1,76 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.waiters;
+
+import java.util.concurrent.*;
+import java.util.function.*;
+import org.awaitility.*;
+import org.awaitility.core.*;
+import org.awaitility.pollinterval.*;
+import org.hamcrest.core.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Polls the search with the interval of the specified {@code ConditionFactory}.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class AwaitilityWaiter
+        implements SwingUtil.Waiter {
+
+    private final ConditionFactory await;
+
+    private static <T> IsNot<T> isNotNull() {
+        return new IsNot<>(new IsNull<>());
+    }
+
+    public AwaitilityWaiter(ConditionFactory await) {
+        this.await = await;
+    }
+
+    /**
+     * Awaitility reports neither the remaining time nor the time an attempt
+     * took, so the strategy is given Long.MAX_VALUE and 0 for those.
+     */
+    @Override
+    public AwaitilityWaiter withPollStrategy(SwingUtil.PollStrategy strategy) {
+        PollInterval interval = (pollCount, previous) -> delay(strategy, pollCount);
+        return new AwaitilityWaiter(await.pollDelay(delay(strategy, 0)).pollInterval(interval));
+    }
+
+    private static Duration delay(SwingUtil.PollStrategy strategy, int attempts) {
+        return new Duration(Math.max(1, strategy.nextDelay(attempts, 0, Long.MAX_VALUE)), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <T> T until(Supplier<T> search) {
+        return await.until(search::get, isNotNull());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.waiters;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import org.awaitility.core.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Repeats the search only when the component tree changes. The waiter listens
+ * for container, hierarchy and window events on the default toolkit and stays
+ * idle in between. Changes that raise no AWT event, such as a new name or
+ * title, are seen through the change source of the lookup.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class AwtEventWaiter
+        implements SwingUtil.Waiter {
+
+    public static final long EVENT_MASK = AWTEvent.CONTAINER_EVENT_MASK
+            | AWTEvent.HIERARCHY_EVENT_MASK
+            | AWTEvent.WINDOW_EVENT_MASK;
+
+    private final long timeout;
+    private final TimeUnit unit;
+
+    public AwtEventWaiter(long timeout) {
+        this(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    public AwtEventWaiter(long timeout, TimeUnit unit) {
+        this.timeout = timeout;
+        this.unit = unit;
+    }
+
+    /**
+     * Returns this waiter, as it attempts only after the tree changed.
+     */
+    @Override
+    public AwtEventWaiter withPollStrategy(SwingUtil.PollStrategy strategy) {
+        return this;
+    }
+
+    @Override
+    public <T> T until(Supplier<T> search) {
+        return until(search, null);
+    }
+
+    /**
+     * Repeats the search after each change of the component tree and each
+     * change reported by the source. The source is only subscribed to once
+     * the first search failed, followed by a search that sees the changes
+     * made in between.
+     */
+    @Override
+    public <T> T until(Supplier<T> search, SwingUtil.ChangeSource source) {
+        Toolkit toolkit = Toolkit.getDefaultToolkit();
+        TreeChangeSignal signal = new TreeChangeSignal();
+        toolkit.addAWTEventListener(signal, EVENT_MASK);
+        Runnable unsubscribe = null;
+        try {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (true) {
+                long generation = signal.generation();
+                T found = search.get();
+                if (found != null)
+                    return found;
+                if (source != null && unsubscribe == null) {
+                    unsubscribe = source.subscribe(signal::changed);
+                    continue;
+                }
+                if (!signal.awaitChange(generation, deadline - System.nanoTime()))
+                    return lastAttempt(search);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConditionTimeoutException("Interrupted while waiting for the component tree to change", ex);
+        } finally {
+            toolkit.removeAWTEventListener(signal);
+            if (unsubscribe != null)
+                unsubscribe.run();
+        }
+    }
+
+    /**
+     * Attempts on the shared {@link LookupScheduler} after each change of the
+     * tree, without holding a thread while waiting.
+     */
+    @Override
+    public <T> CompletableFuture<T> untilAsync(Supplier<T> search) {
+        return untilAsync(search, null);
+    }
+
+    /**
+     * Attempts on the shared {@link LookupScheduler} after each change of the
+     * tree and each change reported by the source, without holding a thread
+     * while waiting.
+     */
+    @Override
+    public <T> CompletableFuture<T> untilAsync(Supplier<T> search, SwingUtil.ChangeSource source) {
+        return LookupScheduler.shared().submit(search, timeout, unit, (attempts, lastAttempt, remaining) -> Long.MAX_VALUE, true, source);
+    }
+
+    private <T> T lastAttempt(Supplier<T> search) {
+        T found = search.get();
+        if (found == null)
+            throw new ConditionTimeoutException("Condition was not fulfilled within " + timeout + " " + unit);
+        return found;
+    }
+
+    private static class TreeChangeSignal
+            implements AWTEventListener {
+
+        private long generation;
+
+        @Override
+        public void eventDispatched(AWTEvent event) {
+            changed();
+        }
+
+        private synchronized void changed() {
+            ++generation;
+            notifyAll();
+        }
+
+        private synchronized long generation() {
+            return generation;
+        }
+
+        private synchronized boolean awaitChange(long seen, long nanos)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + nanos;
+            while (generation == seen) {
+                if (nanos <= 0)
+                    return false;
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+                nanos = deadline - System.nanoTime();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.waiters;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import org.awaitility.core.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Runs the attempts of all pending asynchronous lookups on one daemon thread.
+ * A pass attempts every lookup that is due: the lookups that poll when their
+ * strategy says so, and the lookups that wait for the tree when a container,
+ * hierarchy or window event arrived since their last attempt or their change
+ * source reported a change. Events that arrive while a pass is queued are
+ * handled by that same pass.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public final class LookupScheduler {
+
+    private static final LookupScheduler SHARED = new LookupScheduler();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "swingutil-lookups");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService blocking = LookupThreads.newBlockingExecutor("swingutil-blocking-lookup");
+    private final AtomicBoolean changeQueued = new AtomicBoolean();
+    private final AWTEventListener listener = event -> {
+        if (changeQueued.compareAndSet(false, true))
+            executor.execute(this::treeChanged);
+    };
+
+    // Accessed only from the scheduler thread.
+    private final List<Pending<?>> pending = new ArrayList<>();
+    private ScheduledFuture<?> nextPass;
+    private long nextPassAt;
+    private boolean listening;
+
+    public static LookupScheduler shared() {
+        return SHARED;
+    }
+
+    private LookupScheduler() {
+    }
+
+    /**
+     * Schedules the search until it returns a non null value. The future
+     * completes with a {@link ConditionTimeoutException} when the search did
+     * not succeed in time.
+     *
+     * @param strategy spaces the attempts; a delay of Long.MAX_VALUE waits
+     * for the next change of the tree.
+     * @param onTreeChange also attempts after each change of the tree.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> search, long timeout, TimeUnit unit,
+                                           SwingUtil.PollStrategy strategy, boolean onTreeChange) {
+        return submit(search, timeout, unit, strategy, onTreeChange, null);
+    }
+
+    /**
+     * Like {@link #submit(Supplier, long, TimeUnit, SwingUtil.PollStrategy, boolean)},
+     * also attempting after each change reported by the source. The source is
+     * only subscribed to once the first attempt failed, followed by an
+     * attempt that sees the changes made in between.
+     *
+     * @param source reports changes that raise no AWT event, or null.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> search, long timeout, TimeUnit unit,
+                                           SwingUtil.PollStrategy strategy, boolean onTreeChange,
+                                           SwingUtil.ChangeSource source) {
+        Pending<T> p = new Pending<>(search, timeout, unit, strategy, onTreeChange, source);
+        executor.execute(() -> add(p));
+        p.future.whenComplete((found, ex) -> executor.execute(() -> {
+            remove(p);
+            p.unsubscribe();
+        }));
+        return p.future;
+    }
+
+    /**
+     * Runs the blocking call on a thread of its own, for waiters that cannot
+     * be multiplexed. On Java 21 and later this is a virtual thread. The
+     * thread is held until the call returns; cancelling the future interrupts
+     * the call.
+     */
+    public <T> CompletableFuture<T> submitBlocking(Supplier<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task = blocking.submit(() -> {
+            try {
+                future.complete(call.get());
+            } catch (RuntimeException | Error ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        future.whenComplete((found, ex) -> {
+            if (future.isCancelled())
+                task.cancel(true);
+        });
+        return future;
+    }
+
+    private void add(Pending<?> p) {
+        pending.add(p);
+        if (p.onTreeChange && !listening) {
+            Toolkit.getDefaultToolkit().addAWTEventListener(listener, AwtEventWaiter.EVENT_MASK);
+            listening = true;
+        }
+        requestPass(p.nextAttempt);
+    }
+
+    /**
+     * Forgets a completed lookup. A cancelled lookup is forgotten at once,
+     * instead of at its next attempt, which for a lookup that waits for the
+     * tree may be at its deadline.
+     */
+    private void remove(Pending<?> p) {
+        if (!pending.remove(p))
+            return;
+        if (listening && pending.stream().noneMatch(other -> other.onTreeChange)) {
+            Toolkit.getDefaultToolkit().removeAWTEventListener(listener);
+            listening = false;
+        }
+    }
+
+    private void treeChanged() {
+        changeQueued.set(false);
+        long now = System.nanoTime();
+        for (Pending<?> p : pending)
+            if (p.onTreeChange)
+                p.nextAttempt = now;
+        requestPass(now);
+    }
+
+    private void sourceChanged(Pending<?> p) {
+        if (p.changeQueued.compareAndSet(false, true))
+            executor.execute(() -> {
+                p.changeQueued.set(false);
+                if (!pending.contains(p))
+                    return;
+                p.nextAttempt = System.nanoTime();
+                requestPass(p.nextAttempt);
+            });
+    }
+
+    private void requestPass(long at) {
+        if (nextPass != null) {
+            if (at - nextPassAt >= 0)
+                return;
+            nextPass.cancel(false);
+        }
+        nextPassAt = at;
+        nextPass = executor.schedule(this::pass, Math.max(0, at - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private void pass() {
+        nextPass = null;
+        long now = System.nanoTime();
+        long next = Long.MAX_VALUE;
+        boolean hasNext = false;
+        boolean onTreeChange = false;
+        for (Iterator<Pending<?>> it = pending.iterator(); it.hasNext();) {
+            Pending<?> p = it.next();
+            if (p.nextAttempt - now <= 0) {
+                if (p.attempt()) {
+                    it.remove();
+                    continue;
+                }
+                if (p.source != null && p.unsubscribe == null) {
+                    p.unsubscribe = p.source.subscribe(() -> sourceChanged(p));
+                    p.nextAttempt = System.nanoTime();
+                }
+            }
+            onTreeChange |= p.onTreeChange;
+            if (!hasNext || p.nextAttempt - next < 0)
+                next = p.nextAttempt;
+            hasNext = true;
+        }
+        if (listening && !onTreeChange) {
+            Toolkit.getDefaultToolkit().removeAWTEventListener(listener);
+            listening = false;
+        }
+        if (hasNext)
+            requestPass(next);
+    }
+
+    private static class Pending<T> {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Supplier<T> search;
+        private final long timeout;
+        private final TimeUnit unit;
+        private final SwingUtil.PollStrategy strategy;
+        private final boolean onTreeChange;
+        private final SwingUtil.ChangeSource source;
+        private final AtomicBoolean changeQueued = new AtomicBoolean();
+        private final long deadline;
+        private long nextAttempt;
+        private int attempts;
+        private Runnable unsubscribe;
+
+        private Pending(Supplier<T> search, long timeout, TimeUnit unit, SwingUtil.PollStrategy strategy, boolean onTreeChange,
+                        SwingUtil.ChangeSource source) {
+            this.search = search;
+            this.timeout = timeout;
+            this.unit = unit;
+            this.strategy = strategy;
+            this.onTreeChange = onTreeChange;
+            this.source = source;
+            long now = System.nanoTime();
+            this.deadline = now + unit.toNanos(timeout);
+            this.nextAttempt = onTreeChange ? now : schedule(now, 0);
+        }
+
+        /**
+         * Makes an attempt and returns true when the future is completed.
+         */
+        private boolean attempt() {
+            if (future.isDone())
+                return true;
+            long begin = System.nanoTime();
+            T found;
+            try {
+                found = search.get();
+            } catch (RuntimeException | Error ex) {
+                future.completeExceptionally(ex);
+                return true;
+            }
+            long end = System.nanoTime();
+            if (found != null) {
+                future.complete(found);
+                return true;
+            }
+            if (end - deadline >= 0) {
+                future.completeExceptionally(new ConditionTimeoutException("Condition was not fulfilled within " + timeout + " " + unit));
+                return true;
+            }
+            ++attempts;
+            nextAttempt = schedule(end, end - begin);
+            return false;
+        }
+
+        private void unsubscribe() {
+            if (unsubscribe != null)
+                unsubscribe.run();
+            unsubscribe = null;
+        }
+
+        private long schedule(long now, long lastAttempt) {
+            long remaining = deadline - now;
+            long delay = strategy.nextDelay(attempts, lastAttempt, Math.max(0, remaining));
+            return now + Math.max(0, Math.min(delay, remaining));
+        }
+    }
+}
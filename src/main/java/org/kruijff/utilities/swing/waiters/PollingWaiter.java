@@ -0,0 +1,98 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff.utilities.swing.waiters;
+
+import java.util.concurrent.*;
+import java.util.function.*;
+import org.awaitility.core.*;
+import org.kruijff.utilities.swing.*;
+
+/**
+ * Polls the search, spacing the attempts according to a poll strategy. The
+ * delays are cut off at the timeout, so the last attempt is made at the
+ * timeout.
+ *
+ * @author Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ */
+public class PollingWaiter
+        implements SwingUtil.Waiter {
+
+    private final long timeout;
+    private final TimeUnit unit;
+    private final SwingUtil.PollStrategy strategy;
+
+    public PollingWaiter(long timeout, TimeUnit unit, SwingUtil.PollStrategy strategy) {
+        this.timeout = timeout;
+        this.unit = unit;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public PollingWaiter withPollStrategy(SwingUtil.PollStrategy strategy) {
+        return new PollingWaiter(timeout, unit, strategy);
+    }
+
+    @Override
+    public <T> T until(Supplier<T> search) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempts = 0;
+        long lastAttempt = 0;
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                long delay = Math.min(strategy.nextDelay(attempts, lastAttempt, Math.max(0, remaining)), remaining);
+                if (delay > 0)
+                    TimeUnit.NANOSECONDS.sleep(delay);
+
+                long begin = System.nanoTime();
+                T found = search.get();
+                long end = System.nanoTime();
+                if (found != null)
+                    return found;
+                if (end - deadline >= 0)
+                    throw new ConditionTimeoutException("Condition was not fulfilled within " + timeout + " " + unit);
+                ++attempts;
+                lastAttempt = end - begin;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConditionTimeoutException("Interrupted while waiting between attempts", ex);
+        }
+    }
+
+    /**
+     * Polls on the shared {@link LookupScheduler}, without holding a thread
+     * while waiting.
+     */
+    @Override
+    public <T> CompletableFuture<T> untilAsync(Supplier<T> search) {
+        return LookupScheduler.shared().submit(search, timeout, unit, strategy, false);
+    }
+}
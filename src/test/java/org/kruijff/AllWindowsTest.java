@@ -0,0 +1,128 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.GraphicsEnvironment;
+import java.util.List;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import static javax.swing.SwingUtilities.invokeAndWait;
+import static javax.swing.SwingUtilities.invokeLater;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeFalse;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.matchers.NameMatcher;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class AllWindowsTest {
+
+    private static final int TIMEOUT = 1000;
+
+    private JFrame frameA;
+    private JFrame frameB;
+    private SwingUtil util;
+
+    @Before
+    public void setup() throws Exception {
+        assumeFalse(GraphicsEnvironment.isHeadless());
+        invokeAndWait(() -> {
+            frameA = createFrame("Frame A");
+            frameB = createFrame("Frame B");
+            frameA.add(createLabel("first label", "LA"));
+        });
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private JFrame createFrame(String title) {
+        JFrame frame = new JFrame(title);
+        frame.pack();
+        return frame;
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() throws Exception {
+        if (frameA != null)
+            invokeAndWait(() -> {
+                frameA.dispose();
+                frameB.dispose();
+            });
+        frameA = null;
+        frameB = null;
+        util = null;
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void fetchChildNamedInAllWindows_ChildDoesNotExist() {
+        util.fetchChildNamedInAllWindows("foo", JLabel.class);
+    }
+
+    @Test
+    public void fetchChildNamedInAllWindows_UnownedFrames() {
+        JLabel label = createLabel("second label", "LB");
+        invokeLater(() -> frameB.add(label));
+        assertSame(label, util.fetchChildNamedInAllWindows("second label", JLabel.class));
+        assertEquals("LA", util.fetchChildNamedInAllWindows("first label", JLabel.class).getText());
+    }
+
+    @Test
+    public void fetchChildNamedInAllWindows_OwnedDialog() throws Exception {
+        JLabel label = createLabel("dialog label", "LC");
+        invokeAndWait(() -> {
+            JDialog dialog = new JDialog(frameB, "Dialog");
+            dialog.add(label);
+            dialog.pack();
+        });
+        assertSame(label, util.fetchChildNamedInAllWindows("dialog label", JLabel.class));
+    }
+
+    @Test
+    public void fetchAllInAllWindows_InWindowOrder() throws Exception {
+        invokeAndWait(() -> frameB.add(createLabel("first label", "LB")));
+        List<JLabel> labels = util.fetchAllInAllWindows(new NameMatcher<>("first label", JLabel.class));
+        assertEquals(2, labels.size());
+        assertEquals("LA", labels.get(0).getText());
+        assertEquals("LB", labels.get(1).getText());
+    }
+
+    @Test
+    public void fetchAllInAllWindows_DisposedWindowSkipped() throws Exception {
+        invokeAndWait(() -> frameA.dispose());
+        assertEquals(0, util.fetchAllInAllWindows(new NameMatcher<>("first label", JLabel.class)).size());
+    }
+}
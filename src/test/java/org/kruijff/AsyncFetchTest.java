@@ -0,0 +1,191 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import static javax.swing.SwingUtilities.invokeLater;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.metrics.LookupStatistics;
+import org.kruijff.utilities.swing.polling.FixedPollStrategy;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+import org.kruijff.utilities.swing.waiters.LookupScheduler;
+
+public class AsyncFetchTest {
+
+    private static final int DELAY = 200;
+    private static final int TIMEOUT = 1000;
+    private static final int LOOKUPS = 50;
+
+    private JPanel panel;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private void addLabelsLater(int count) {
+        new Thread(() -> {
+            sleep(DELAY);
+            invokeLater(() -> {
+                for (int i = 0; i < count; ++i) {
+                    JLabel label = new JLabel("L" + i);
+                    label.setName("label " + i);
+                    panel.add(label);
+                }
+            });
+        }).start();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchChildNamedAsync_ManyPending() throws Exception {
+        List<CompletableFuture<JLabel>> futures = new ArrayList<>();
+        for (int i = 0; i < LOOKUPS; ++i)
+            futures.add(util.fetchChildNamedAsync(panel, "label " + i, JLabel.class));
+        addLabelsLater(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; ++i)
+            assertEquals("L" + i, futures.get(i).get(TIMEOUT * 2, TimeUnit.MILLISECONDS).getText());
+    }
+
+    @Test
+    public void fetchChildNamedAsync_ChildRenamedLater() throws Exception {
+        JLabel label = new JLabel("LA");
+        label.setName("label B");
+        panel.add(label);
+        CompletableFuture<JLabel> future = util.fetchChildNamedAsync(panel, "label A", JLabel.class);
+        sleep(DELAY);
+        long renamedAt = System.nanoTime();
+        invokeLater(() -> label.setName("label A"));
+        assertEquals("LA", future.get(TIMEOUT * 2, TimeUnit.MILLISECONDS).getText());
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - renamedAt);
+        assertTrue("latency " + latency, latency < DELAY);
+    }
+
+    @Test
+    public void fetchChildNamedAsync_Timeout() throws Exception {
+        CompletableFuture<JLabel> future = util.fetchChildNamedAsync(panel, "foo", JLabel.class);
+        try {
+            future.get(TIMEOUT * 2, TimeUnit.MILLISECONDS);
+            fail("Expected ChildNotFoundException");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof ChildNotFoundException);
+        }
+    }
+
+    @Test
+    public void fetchChildNamedAsync_Polling() throws Exception {
+        util = new SwingUtil(TIMEOUT, TimeUnit.MILLISECONDS, new FixedPollStrategy(10, TimeUnit.MILLISECONDS));
+        CompletableFuture<JLabel> future = util.fetchChildNamedAsync(panel, "label 0", JLabel.class);
+        addLabelsLater(1);
+        assertEquals("L0", future.get(TIMEOUT * 2, TimeUnit.MILLISECONDS).getText());
+    }
+
+    @Test
+    public void fetchChildNamedAsync_Awaitility() throws Exception {
+        util = new SwingUtil(TIMEOUT);
+        CompletableFuture<JLabel> future = util.fetchChildNamedAsync(panel, "label 0", JLabel.class);
+        addLabelsLater(1);
+        assertEquals("L0", future.get(TIMEOUT * 2, TimeUnit.MILLISECONDS).getText());
+    }
+
+    @Test
+    public void submit_CancelStopsAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Object> pending = LookupScheduler.shared().submit(() -> {
+            attempts.incrementAndGet();
+            return null;
+        }, TIMEOUT, TimeUnit.MILLISECONDS, new FixedPollStrategy(10, TimeUnit.MILLISECONDS), false);
+        sleep(DELAY / 4);
+        pending.cancel(true);
+        int cancelledAt = attempts.get();
+        sleep(DELAY);
+        assertTrue("attempts " + attempts.get() + " after " + cancelledAt, attempts.get() <= cancelledAt + 1);
+    }
+
+    @Test
+    public void fetchChildNamedAsync_CancelFinishesLookup() {
+        List<LookupStatistics> statistics = new CopyOnWriteArrayList<>();
+        util.withListener(statistics::add).fetchChildNamedAsync(panel, "foo", JLabel.class).cancel(true);
+        assertEquals(1, statistics.size());
+        assertFalse(statistics.get(0).isFound());
+    }
+
+    @Test
+    public void submitBlocking_CancelInterruptsCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Object> blocked = LookupScheduler.shared().submitBlocking(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TIMEOUT * 10);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        blocked.cancel(true);
+        assertTrue(interrupted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import static javax.swing.SwingUtilities.invokeLater;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+
+public class AwaitIdleTest {
+
+    private static final int DELAY = 100;
+    private static final int TIMEOUT = 1000;
+
+    private JPanel panel;
+    private AtomicInteger count;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        count = new AtomicInteger();
+        util = new SwingUtil(TIMEOUT);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private void addButton(String name, Runnable action) {
+        JButton button = new JButton(name);
+        button.setName(name);
+        button.addActionListener(e -> action.run());
+        panel.add(button);
+    }
+
+    private static class PushedEventQueue
+            extends EventQueue {
+
+        private void remove() {
+            pop();
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void incrementLater(int times) {
+        if (times > 0)
+            invokeLater(() -> {
+                count.incrementAndGet();
+                incrementLater(times - 1);
+            });
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        count = null;
+        util = null;
+    }
+
+    @Test
+    public void clickButtonAndWait_ListenersHaveRun() {
+        addButton("button A", () -> count.incrementAndGet());
+        util.clickButtonAndWait(panel, "button A");
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void awaitIdle_ChainedTasks() {
+        addButton("button A", () -> incrementLater(10));
+        util.clickButtonAndWait(panel, "button A");
+        util.awaitIdle(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(10, count.get());
+    }
+
+    @Test
+    public void awaitIdle_Timer() {
+        Timer timer = new Timer(DELAY, e -> count.incrementAndGet());
+        timer.setRepeats(false);
+        timer.start();
+        util.awaitIdle(TIMEOUT, TimeUnit.MILLISECONDS, timer);
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void awaitIdle_EventQueuePushedWhileWaiting() {
+        PushedEventQueue queue = new PushedEventQueue();
+        CountDownLatch release = new CountDownLatch(1);
+        invokeLater(() -> {
+            await(release);
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+            incrementLater(10);
+        });
+        new Thread(() -> {
+            try {
+                Thread.sleep(DELAY);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+        try {
+            util.awaitIdle(TIMEOUT, TimeUnit.MILLISECONDS);
+            assertEquals(10, count.get());
+        } finally {
+            queue.remove();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.Label;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.RowFilter;
+import static javax.swing.SwingUtilities.invokeLater;
+import static javax.swing.SwingUtilities.isEventDispatchThread;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import org.awaitility.core.ConditionTimeoutException;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeFalse;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.states.States;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class AwaitStateTest {
+
+    private static final int DELAY = 100;
+    private static final int TIMEOUT = 1000;
+
+    private JPanel panel;
+    private JLabel label;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        label = new JLabel("Busy");
+        label.setName("status");
+        panel.add(label);
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private void later(Runnable task) {
+        new Thread(() -> {
+            sleep(DELAY);
+            invokeLater(task);
+        }).start();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        label = null;
+        util = null;
+    }
+
+    @Test
+    public void awaitState_TextChangedLater() {
+        later(() -> label.setText("Done"));
+        assertSame(label, util.awaitState(label, States.text("Done")));
+    }
+
+    @Test(expected = ConditionTimeoutException.class)
+    public void awaitState_StateNotReached() {
+        util.awaitState(label, States.text("Done"));
+    }
+
+    @Test
+    public void awaitState_TextFieldEdited() {
+        JTextField field = new JTextField();
+        later(() -> field.setText("x@y.nl"));
+        util.awaitState(field, States.textMatching(text -> text.contains("@")));
+    }
+
+    @Test
+    public void awaitState_Enabled() {
+        JButton button = new JButton("Save");
+        button.setEnabled(false);
+        later(() -> button.setEnabled(true));
+        util.awaitState(button, States.enabled(true));
+    }
+
+    @Test
+    public void awaitState_Selected() {
+        JCheckBox box = new JCheckBox("Subscribe");
+        later(() -> box.setSelected(true));
+        util.awaitState(box, States.selected(true));
+    }
+
+    @Test
+    public void awaitState_Hidden() {
+        later(() -> label.setVisible(false));
+        util.awaitState(label, States.visible(false));
+    }
+
+    @Test
+    public void awaitState_RowCount() {
+        DefaultTableModel model = new DefaultTableModel(0, 1);
+        JTable table = new JTable(model);
+        later(() -> {
+            model.addRow(new Object[]{"Alice"});
+            model.addRow(new Object[]{"Bob"});
+        });
+        util.awaitState(table, States.rowCount(2));
+    }
+
+    @Test
+    public void awaitState_RowCountAfterFilter() {
+        DefaultTableModel model = new DefaultTableModel(new Object[][]{{"Alice"}, {"Bob"}}, new Object[]{"name"});
+        JTable table = new JTable(model);
+        TableRowSorter<TableModel> sorter = new TableRowSorter<>(model);
+        table.setRowSorter(sorter);
+        later(() -> sorter.setRowFilter(RowFilter.regexFilter("Bob")));
+        util.awaitState(table, States.rowCount(1));
+    }
+
+    @Test
+    public void awaitState_RowCountAfterSorterAdded() {
+        DefaultTableModel model = new DefaultTableModel(new Object[][]{{"Alice"}, {"Bob"}}, new Object[]{"name"});
+        JTable table = new JTable(model);
+        TableRowSorter<TableModel> sorter = new TableRowSorter<>(model);
+        sorter.setRowFilter(RowFilter.regexFilter("Alice"));
+        later(() -> table.setRowSorter(sorter));
+        util.awaitState(table, States.rowCount(1));
+    }
+
+    @Test
+    public void awaitState_AwtLabelText() {
+        assumeFalse(GraphicsEnvironment.isHeadless());
+        Label awt = new Label("Saving");
+        later(() -> awt.setText("Saved"));
+        util.awaitState(awt, States.text("Saved"));
+    }
+
+    @Test
+    public void awaitState_PredicateOnBoundProperty() {
+        later(() -> label.setToolTipText("Saved"));
+        util.awaitState(label, (JLabel l) -> "Saved".equals(l.getToolTipText()));
+    }
+
+    @Test
+    public void awaitState_CheckedOnEventDispatchThreadOnlyAfterChange() {
+        AtomicInteger checks = new AtomicInteger();
+        AtomicInteger offThread = new AtomicInteger();
+        SwingUtil polling = new SwingUtil(DELAY * 3);
+        try {
+            polling.awaitState(label, (JLabel l) -> {
+                checks.incrementAndGet();
+                if (!isEventDispatchThread())
+                    offThread.incrementAndGet();
+                return false;
+            });
+        } catch (ConditionTimeoutException ex) {
+            assertEquals(1, checks.get());
+            assertEquals(0, offThread.get());
+            return;
+        }
+        throw new AssertionError("state reached");
+    }
+
+    @Test
+    public void awaitState_ListenersRemoved() {
+        int before = label.getPropertyChangeListeners("text").length;
+        later(() -> label.setText("Done"));
+        util.awaitState(label, States.text("Done"));
+        assertEquals(before, label.getPropertyChangeListeners("text").length);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import static javax.swing.SwingUtilities.invokeLater;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.metrics.LookupStatistics;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class AwtEventWaiterTest {
+
+    private static final int DELAY = 200;
+    private static final int TIMEOUT = 1000;
+    private static final int LATENCY = 50;
+
+    private JPanel panel;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private void addLabelLater(String name, String value) {
+        new Thread(() -> {
+            sleep(DELAY);
+            invokeLater(() -> {
+                JLabel label = new JLabel(value);
+                label.setName(name);
+                panel.add(label);
+            });
+        }).start();
+    }
+
+    /**
+     * Renames the label after the delay, and keeps the time of the rename.
+     */
+    private void renameLater(JLabel label, String name, long[] renamedAt) {
+        new Thread(() -> {
+            sleep(DELAY);
+            invokeLater(() -> {
+                renamedAt[0] = System.nanoTime();
+                label.setName(name);
+            });
+        }).start();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        util = null;
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void fetchChildNamed_ChildDoesNotExist() {
+        util.fetchChildNamed(panel, "foo", JLabel.class);
+    }
+
+    @Test
+    public void fetchChildNamed_ChildAddedLater() {
+        addLabelLater("label A", "LA");
+        long start = System.nanoTime();
+        JLabel label = util.fetchChildNamed(panel, "label A", JLabel.class);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals("LA", label.getText());
+        assertTrue("elapsed " + elapsed, elapsed < TIMEOUT);
+    }
+
+    @Test
+    public void fetchChildIndexed_ChildAddedLater() {
+        addLabelLater("label A", "LA");
+        JLabel label = util.fetchChildIndexed(panel, 0, JLabel.class);
+        assertEquals("LA", label.getText());
+    }
+
+    @Test
+    public void fetchChildNamed_ChildRenamedLater() {
+        JLabel label = new JLabel("LA");
+        label.setName("label B");
+        panel.add(label);
+        long[] renamedAt = new long[1];
+        renameLater(label, "label A", renamedAt);
+        assertSame(label, util.fetchChildNamed(panel, "label A", JLabel.class));
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - renamedAt[0]);
+        assertTrue("latency " + latency, latency < LATENCY);
+    }
+
+    @Test
+    public void fetchChildNamed_NoAttemptsBetweenEvents() {
+        List<LookupStatistics> statistics = new ArrayList<>();
+        addLabelLater("label A", "LA");
+        util.withListener(statistics::add).fetchChildNamed(panel, "label A", JLabel.class);
+        assertTrue("attempts " + statistics.get(0).getAttempts(), statistics.get(0).getAttempts() <= 4);
+    }
+
+    @Test
+    public void fetchChildNamed_NoAttemptsWithoutEvents() {
+        List<LookupStatistics> statistics = new ArrayList<>();
+        try {
+            new SwingUtil(new AwtEventWaiter(DELAY)).withListener(statistics::add).fetchChildNamed(panel, "foo", JLabel.class);
+        } catch (ChildNotFoundException ex) {
+            assertEquals(3, statistics.get(0).getAttempts());
+            return;
+        }
+        fail("expected ChildNotFoundException");
+    }
+}
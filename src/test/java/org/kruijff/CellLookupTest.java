@@ -0,0 +1,216 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JTable;
+import javax.swing.JTree;
+import static javax.swing.SwingUtilities.invokeLater;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.TreePath;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.cells.ListCell;
+import org.kruijff.utilities.swing.cells.TableCell;
+import org.kruijff.utilities.swing.cells.ThreadSafeModel;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class CellLookupTest {
+
+    private static final int DELAY = 200;
+    private static final int TIMEOUT = 2000;
+    private static final int ROWS = 100000;
+
+    private DefaultTableModel model;
+    private JTable table;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        model = new DefaultTableModel(new Object[]{"id", "name"}, 0);
+        for (int i = 0; i < ROWS; ++i)
+            model.addRow(new Object[]{i, "name " + i});
+        table = new JTable(model);
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private void later(Runnable task) {
+        new Thread(() -> {
+            try {
+                Thread.sleep(DELAY);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            invokeLater(task);
+        }).start();
+    }
+
+    private static class SquaresModel
+            extends AbstractTableModel
+            implements ThreadSafeModel {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int getRowCount() {
+            return ROWS;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 1;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return (long) row * row;
+        }
+    }
+
+    private static class IsEqual
+            implements Predicate<Object> {
+
+        private final Object value;
+
+        private IsEqual(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(Object t) {
+            return value.equals(t);
+        }
+
+        @Override
+        public String toString() {
+            return "equal to " + value;
+        }
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        model = null;
+        table = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchTableCell_LastRow() {
+        TableCell cell = util.fetchTableCell(table, Predicate.isEqual("name " + (ROWS - 1)));
+        assertEquals(ROWS - 1, cell.getRow());
+        assertEquals(1, cell.getColumn());
+    }
+
+    @Test
+    public void fetchTableCell_RowAddedLater() {
+        later(() -> model.addRow(new Object[]{-1, "new"}));
+        long start = System.nanoTime();
+        TableCell cell = util.fetchTableCell(table, Predicate.isEqual("new"));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(ROWS, cell.getRow());
+        assertTrue("elapsed " + elapsed, elapsed < TIMEOUT);
+    }
+
+    @Test
+    public void fetchTableCell_ModelReplacedLater() {
+        DefaultTableModel other = new DefaultTableModel(new Object[]{"id"}, 0);
+        later(() -> table.setModel(other));
+        later(() -> other.addRow(new Object[]{"other"}));
+        assertEquals(0, util.fetchTableCell(table, Predicate.isEqual("other")).getRow());
+    }
+
+    @Test
+    public void fetchTableCell_ThreadSafeModel() {
+        table.setModel(new SquaresModel());
+        assertEquals(300, util.fetchTableCell(table, Predicate.isEqual(90000L)).getRow());
+    }
+
+    @Test
+    public void fetchTableCell_CellDoesNotExist() {
+        util = new SwingUtil(new AwtEventWaiter(DELAY));
+        table.setName("people");
+        try {
+            util.fetchTableCell(table, new IsEqual("foo"));
+        } catch (ChildNotFoundException ex) {
+            assertEquals("cell matching equal to foo in DefaultTableModel of JTable 'people'", ex.getMessage());
+            return;
+        }
+        fail("expected ChildNotFoundException");
+    }
+
+    @Test
+    public void fetchListCell_ElementDoesNotExist() {
+        util = new SwingUtil(new AwtEventWaiter(DELAY));
+        try {
+            util.fetchListCell(new JList<>(new DefaultListModel<>()), new IsEqual("foo"));
+        } catch (ChildNotFoundException ex) {
+            assertEquals("element matching equal to foo in DefaultListModel of JList", ex.getMessage());
+            return;
+        }
+        fail("expected ChildNotFoundException");
+    }
+
+    @Test
+    public void fetchListCell_ElementAddedLater() {
+        DefaultListModel<String> elements = new DefaultListModel<>();
+        elements.addElement("A");
+        JList<String> list = new JList<>(elements);
+        later(() -> elements.addElement("B"));
+        ListCell cell = util.fetchListCell(list, Predicate.isEqual("B"));
+        assertEquals(1, cell.getIndex());
+        assertEquals("B", cell.getValue());
+    }
+
+    @Test
+    public void fetchTreePath_Nested() {
+        DefaultMutableTreeNode root = new DefaultMutableTreeNode("root");
+        DefaultMutableTreeNode child = new DefaultMutableTreeNode("child");
+        DefaultMutableTreeNode leaf = new DefaultMutableTreeNode("leaf");
+        root.add(new DefaultMutableTreeNode("other"));
+        root.add(child);
+        child.add(leaf);
+        JTree tree = new JTree(root);
+        TreePath path = util.fetchTreePath(tree, node -> "leaf".equals(((DefaultMutableTreeNode) node).getUserObject()));
+        assertEquals(new TreePath(new Object[]{root, child, leaf}), path);
+    }
+}
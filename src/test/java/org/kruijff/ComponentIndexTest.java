@@ -0,0 +1,139 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import static org.kruijff.TestComponents.createPopuplessMenu;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.indexes.ComponentIndex;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class ComponentIndexTest {
+
+    private static final int TIMEOUT = 200;
+
+    private JPanel panel;
+    private JPanel inner;
+    private ComponentIndex index;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        inner = new JPanel();
+        panel.add(inner);
+        inner.add(createLabel("label A", "LA"));
+        index = new ComponentIndex().add(panel);
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT), index);
+    }
+
+    @After
+    public void teardown() {
+        index.remove(panel);
+        panel = null;
+        inner = null;
+        index = null;
+        util = null;
+    }
+
+    @Test
+    public void covers() {
+        assertTrue(index.covers(panel));
+        assertTrue(index.covers(inner));
+        assertFalse(index.covers(new JPanel()));
+    }
+
+    @Test
+    public void fetchChildNamed_ChildExists() {
+        JLabel label = util.fetchChildNamed(panel, "label A", JLabel.class);
+        assertEquals("LA", label.getText());
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void fetchChildNamed_ChildOfOtherType() {
+        util.fetchChildNamed(panel, "label A", JPanel.class);
+    }
+
+    @Test
+    public void fetchChildNamed_ChildAddedLater() {
+        JLabel label = createLabel("label B", "LB");
+        inner.add(label);
+        assertSame(label, util.fetchChildNamed(panel, "label B", JLabel.class));
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void fetchChildNamed_ChildRemoved() {
+        inner.removeAll();
+        util.fetchChildNamed(panel, "label A", JLabel.class);
+    }
+
+    @Test
+    public void fetchChildNamed_ChildRenamed() {
+        JLabel label = util.fetchChildNamed(panel, "label A", JLabel.class);
+        label.setName("label C");
+        assertEquals(0, index.named(panel, "label A", JLabel.class).size());
+        assertSame(label, util.fetchChildNamed(panel, "label C", JLabel.class));
+    }
+
+    @Test
+    public void fetchChildNamed_DuplicateNamesFirstInTreeOrder() {
+        inner.add(createLabel("label A", "LA2"));
+        assertEquals("LA", util.fetchChildNamed(panel, "label A", JLabel.class).getText());
+    }
+
+    @Test
+    public void fetchChildNamed_MenuItem() {
+        JMenu menu = new JMenu("File");
+        JMenuItem item = new JMenuItem("Open");
+        item.setName("open");
+        panel.add(menu);
+        menu.add(item);
+        assertSame(item, util.fetchChildNamed(panel, "open", JMenuItem.class));
+    }
+
+    @Test
+    public void fetchChildNamed_EmptyMenuKeepsItsPopup() {
+        panel.add(createPopuplessMenu("Edit"));
+        assertEquals(0, index.named(panel, "label B", JLabel.class).size());
+        panel.removeAll();
+    }
+}
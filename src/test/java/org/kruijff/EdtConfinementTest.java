@@ -0,0 +1,181 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import static javax.swing.SwingUtilities.isEventDispatchThread;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.indexes.ComponentIndex;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class EdtConfinementTest {
+
+    private static final int TIMEOUT = 1000;
+    private static final int SIZE = 20000;
+
+    private JPanel panel;
+    private AtomicBoolean readOffEdt;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        readOffEdt = new AtomicBoolean();
+        for (int i = 0; i < SIZE; ++i)
+            panel.add(createLabel("label " + i, "L" + i));
+        util = new SwingUtil(TIMEOUT).confinedToEventDispatchThread(1, TimeUnit.MILLISECONDS);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private JLabel createLabel(String name, String value) {
+        JLabel label = new JLabel(value) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getName() {
+                if (!isEventDispatchThread())
+                    readOffEdt.set(true);
+                return super.getName();
+            }
+        };
+        label.setName(name);
+        return label;
+    }
+
+    private JLabel createInsertingLabel(String name) {
+        JLabel label = new JLabel() {
+            private static final long serialVersionUID = 1L;
+            private boolean inserted;
+
+            @Override
+            public int getComponentCount() {
+                if (!inserted) {
+                    inserted = true;
+                    SwingUtilities.invokeLater(() -> panel.add(new JLabel(), 0));
+                }
+                return super.getComponentCount();
+            }
+        };
+        label.setName(name);
+        return label;
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        readOffEdt = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchChildNamed_ReadsOnlyOnEdt() {
+        JLabel label = util.fetchChildNamed(panel, "label " + (SIZE - 1), JLabel.class);
+        assertEquals("L" + (SIZE - 1), label.getText());
+        assertFalse(readOffEdt.get());
+    }
+
+    @Test
+    public void fetchChildIndexed_SpansSeveralTasks() {
+        JLabel label = new SwingUtil(TIMEOUT).confinedToEventDispatchThread(1, TimeUnit.NANOSECONDS)
+                .fetchChildIndexed(panel, SIZE - 1, JLabel.class);
+        assertEquals("L" + (SIZE - 1), label.getText());
+        assertFalse(readOffEdt.get());
+    }
+
+    @Test
+    public void fetchChildNamed_IndexedDuplicatesSpanSeveralTasks() {
+        AtomicBoolean armed = new AtomicBoolean();
+        AtomicBoolean otherTaskRan = new AtomicBoolean();
+        AtomicBoolean reachedAfterOtherTask = new AtomicBoolean();
+        JLabel poster = new JLabel() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getName() {
+                if (armed.compareAndSet(true, false))
+                    SwingUtilities.invokeLater(() -> otherTaskRan.set(true));
+                return super.getName();
+            }
+        };
+        JLabel target = new JLabel("T") {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getName() {
+                if (otherTaskRan.get())
+                    reachedAfterOtherTask.set(true);
+                return super.getName();
+            }
+        };
+        target.setName("target");
+        panel = new JPanel();
+        panel.add(poster);
+        for (int i = 0; i < 200; ++i)
+            panel.add(createLabel("label " + i, "L" + i));
+        panel.add(target);
+        panel.add(createLabel("target", "duplicate"));
+        ComponentIndex index = new ComponentIndex().add(panel);
+        try {
+            armed.set(true);
+            JLabel label = new SwingUtil(new AwtEventWaiter(TIMEOUT), index).confinedToEventDispatchThread(1, TimeUnit.NANOSECONDS)
+                    .fetchChildNamed(panel, "target", JLabel.class);
+            assertEquals("T", label.getText());
+            assertTrue(reachedAfterOtherTask.get());
+        } finally {
+            index.remove(panel);
+        }
+    }
+
+    @Test
+    public void fetchChildIndexed_ChildInsertedBetweenTasks() {
+        JPanel first = new JPanel();
+        first.add(createInsertingLabel("inserter"));
+        first.add(panel);
+        JPanel second = new JPanel();
+        second.add(createLabel("second", "S"));
+        panel = new JPanel();
+        panel.add(first);
+        panel.add(second);
+        JLabel label = new SwingUtil(TIMEOUT).confinedToEventDispatchThread(1, TimeUnit.NANOSECONDS)
+                .fetchChildIndexed(panel, SIZE + 2, JLabel.class);
+        assertEquals("second", label.getName());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.NamedChildren;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+
+public class FetchChildrenNamedTest {
+
+    private static final int TIMEOUT = 200;
+
+    private JPanel panel;
+    private SwingUtil util;
+    private Map<String, Class<?>> types;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        JPanel inner = new JPanel();
+        panel.add(inner);
+        inner.add(createLabel("emailLabel", "Email"));
+        JTextField field = new JTextField("x@y.z");
+        field.setName("emailField");
+        inner.add(field);
+        util = new SwingUtil(TIMEOUT);
+        types = new LinkedHashMap<>();
+        types.put("emailLabel", JLabel.class);
+        types.put("emailField", JTextField.class);
+    }
+
+    @After
+    public void teardown() {
+        panel = null;
+        util = null;
+        types = null;
+    }
+
+    @Test
+    public void fetchChildrenNamed_ChildrenExist() {
+        NamedChildren children = util.fetchChildrenNamed(panel, types);
+        assertEquals("Email", children.get("emailLabel", JLabel.class).getText());
+        assertEquals("x@y.z", children.get("emailField", JTextField.class).getText());
+    }
+
+    @Test
+    public void fetchChildrenNamed_MissingChildrenListed() {
+        types.put("message", JLabel.class);
+        types.put("emailLabel", JTextField.class);
+        try {
+            util.fetchChildrenNamed(panel, types);
+        } catch (ChildNotFoundException ex) {
+            assertEquals("names = [emailLabel, message]", ex.getMessage());
+            return;
+        }
+        fail("expected ChildNotFoundException");
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+
+public class FormFillTest {
+
+    private static final int TIMEOUT = 200;
+
+    private JPanel panel;
+    private JTextField email;
+    private JComboBox<String> country;
+    private JCheckBox subscribe;
+    private List<String> submitted;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        email = named(new JTextField(), "emailField");
+        country = named(new JComboBox<>(new String[]{"NL", "BE", "DE", "FR"}), "country");
+        subscribe = named(new JCheckBox(), "subscribe");
+        JButton submit = named(new JButton("Submit"), "submit");
+        submitted = new ArrayList<>();
+        submit.addActionListener(e -> submitted.add(email.getText() + " " + country.getSelectedItem() + " " + subscribe.isSelected()));
+        panel.add(email);
+        panel.add(country);
+        panel.add(subscribe);
+        panel.add(submit);
+        util = new SwingUtil(TIMEOUT);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private <T extends JComponent> T named(T component, String name) {
+        component.setName(name);
+        return component;
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        email = null;
+        country = null;
+        subscribe = null;
+        submitted = null;
+        util = null;
+    }
+
+    @Test
+    public void applyAndWait_InOrder() {
+        util.fill(panel).set("emailField", "x@y.nl").select("country", 2).check("subscribe", true).click("submit").applyAndWait();
+        assertEquals(1, submitted.size());
+        assertEquals("x@y.nl DE true", submitted.get(0));
+    }
+
+    @Test
+    public void apply_Later() {
+        util.fill(panel).select("country", "FR").click("submit").apply();
+        util.awaitIdle(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(" FR false", submitted.get(0));
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void applyAndWait_ChildDoesNotExist() {
+        util.fill(panel).set("foo", "x").applyAndWait();
+    }
+
+    @Test
+    public void applyAndWait_SelectOnCheckBox() {
+        try {
+            util.fill(panel).set("emailField", "x@y.nl").select("subscribe", 1).applyAndWait();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("subscribe is not a JComboBox, JList or JTabbedPane", ex.getMessage());
+            assertEquals("", email.getText());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_ConflictingTypes() {
+        util.fill(panel).set("submit", "x").click("submit");
+    }
+}
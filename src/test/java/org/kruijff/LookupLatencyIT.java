@@ -0,0 +1,245 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import static javax.swing.SwingUtilities.invokeAndWait;
+import static javax.swing.SwingUtilities.invokeLater;
+import org.junit.After;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+/**
+ * Measures the latency from the moment a component appears until the lookup
+ * for it returns, on large trees, deep stacks of owned dialogs and with many
+ * concurrent callers. Each scenario prints its p50, p99 and max, and fails
+ * when one of them exceeds its budget. The budgets and the sizes can be set
+ * through system properties, for example
+ * {@code -Dswingutil.stress.p99=250 -Dswingutil.stress.components=50000}.
+ *
+ * The window scenario needs a display and is skipped without one; on a plain
+ * Linux box run the suite with {@code xvfb-run mvn verify}. The click
+ * scenario uses {@link SwingUtil#clickButtonAndWait}, whose
+ * {@code doClick(0)} does not add the press time of {@code doClick()}.
+ */
+public class LookupLatencyIT {
+
+    private static final int TIMEOUT = 5000;
+    private static final int DELAY = 20;
+    private static final int ROUNDS = Integer.getInteger("swingutil.stress.rounds", 50);
+    private static final int COMPONENTS = Integer.getInteger("swingutil.stress.components", 20000);
+    private static final int DIALOGS = Integer.getInteger("swingutil.stress.dialogs", 200);
+    private static final int CALLERS = Integer.getInteger("swingutil.stress.callers", 64);
+    private static final int PER_PANEL = 100;
+    private static final long BUDGET_P50 = Long.getLong("swingutil.stress.p50", 100);
+    private static final long BUDGET_P99 = Long.getLong("swingutil.stress.p99", 500);
+    private static final long BUDGET_MAX = Long.getLong("swingutil.stress.max", 2000);
+
+    private ScheduledExecutorService scheduler;
+    private JPanel panel;
+    private JPanel last;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        panel = createTree(COMPONENTS);
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private JPanel createTree(int components) {
+        JPanel root = new JPanel();
+        for (int i = 0; i < components; i += PER_PANEL) {
+            last = new JPanel();
+            for (int j = i; j < Math.min(i + PER_PANEL, components); ++j)
+                last.add(createLabel("filler " + j, "F" + j));
+            root.add(last);
+        }
+        return root;
+    }
+
+    /**
+     * Runs the task on the event dispatch thread after a random delay and
+     * completes with the {@link System#nanoTime()} right after it ran.
+     */
+    private CompletableFuture<Long> appearLater(Runnable task) {
+        CompletableFuture<Long> appeared = new CompletableFuture<>();
+        long delay = ThreadLocalRandom.current().nextInt(DELAY);
+        scheduler.schedule(() -> invokeLater(() -> {
+            task.run();
+            appeared.complete(System.nanoTime());
+        }), delay, TimeUnit.MILLISECONDS);
+        return appeared;
+    }
+
+    private static long latency(CompletableFuture<Long> appeared, long returned) {
+        return Math.max(0, returned - appeared.join());
+    }
+
+    private static void assertWithinBudget(String scenario, List<Long> latencies) {
+        long[] sorted = latencies.stream().mapToLong(TimeUnit.NANOSECONDS::toMillis).sorted().toArray();
+        long p50 = percentile(sorted, 50);
+        long p99 = percentile(sorted, 99);
+        long max = sorted[sorted.length - 1];
+        System.out.printf("%-36s n=%-6d p50=%4d ms  p99=%4d ms  max=%4d ms%n", scenario, sorted.length, p50, p99, max);
+        assertTrue(scenario + " p50 " + p50 + " ms exceeds " + BUDGET_P50 + " ms", p50 <= BUDGET_P50);
+        assertTrue(scenario + " p99 " + p99 + " ms exceeds " + BUDGET_P99 + " ms", p99 <= BUDGET_P99);
+        assertTrue(scenario + " max " + max + " ms exceeds " + BUDGET_MAX + " ms", max <= BUDGET_MAX);
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static JDialog createDialogs(JFrame frame, int count) {
+        JDialog owner = null;
+        for (int i = 0; i < count; ++i) {
+            JDialog dialog = owner == null ? new JDialog(frame, "Dialog " + i) : new JDialog(owner, "Dialog " + i);
+            dialog.pack();
+            owner = dialog;
+        }
+        return owner;
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        scheduler.shutdownNow();
+        scheduler = null;
+        panel = null;
+        last = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchChildNamed_LargeTree() {
+        List<Long> latencies = new ArrayList<>(ROUNDS);
+        for (int i = 0; i < ROUNDS; ++i) {
+            String name = "target " + i;
+            CompletableFuture<Long> appeared = appearLater(() -> last.add(createLabel(name, "T")));
+            util.fetchChildNamed(panel, name, JLabel.class);
+            latencies.add(latency(appeared, System.nanoTime()));
+        }
+        assertWithinBudget("fetchChildNamed " + COMPONENTS + " components", latencies);
+    }
+
+    @Test
+    public void fetchChildNamed_ConcurrentCallers() throws Exception {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            for (int round = 0; round < Math.max(1, ROUNDS / 10); ++round) {
+                List<Future<?>> futures = new ArrayList<>(CALLERS);
+                for (int i = 0; i < CALLERS; ++i) {
+                    String name = "caller " + round + " " + i;
+                    futures.add(callers.submit(() -> {
+                        CompletableFuture<Long> appeared = appearLater(() -> last.add(createLabel(name, "C")));
+                        util.fetchChildNamed(panel, name, JLabel.class);
+                        latencies.add(latency(appeared, System.nanoTime()));
+                    }));
+                }
+                for (Future<?> f : futures)
+                    f.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+        assertWithinBudget("fetchChildNamed " + CALLERS + " callers", new ArrayList<>(latencies));
+    }
+
+    @Test
+    public void clickButtonAndWait_LargeTree() {
+        List<Long> latencies = new ArrayList<>(ROUNDS);
+        for (int i = 0; i < ROUNDS; ++i) {
+            String name = "button " + i;
+            CompletableFuture<Long> clicked = new CompletableFuture<>();
+            JButton button = new JButton(new AbstractAction("Click") {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    clicked.complete(System.nanoTime());
+                }
+            });
+            button.setName(name);
+            CompletableFuture<Long> appeared = appearLater(() -> last.add(button));
+            util.clickButtonAndWait(panel, name);
+            latencies.add(latency(appeared, clicked.join()));
+        }
+        assertWithinBudget("clickButtonAndWait " + COMPONENTS + " components", latencies);
+    }
+
+    @Test
+    public void fetchWindowTitled_StackedOwnedDialogs() throws Exception {
+        assumeFalse(GraphicsEnvironment.isHeadless());
+        JFrame frame = new JFrame();
+        try {
+            JDialog[] top = new JDialog[1];
+            invokeAndWait(() -> top[0] = createDialogs(frame, DIALOGS));
+            List<Long> latencies = new ArrayList<>(ROUNDS);
+            for (int i = 0; i < ROUNDS; ++i) {
+                String title = "Target " + i;
+                JDialog[] target = new JDialog[1];
+                CompletableFuture<Long> appeared = appearLater(() -> {
+                    target[0] = new JDialog(top[0], title);
+                    target[0].pack();
+                });
+                util.fetchWindowTitled(frame, title, JDialog.class);
+                latencies.add(latency(appeared, System.nanoTime()));
+                invokeAndWait(() -> target[0].dispose());
+            }
+            assertWithinBudget("fetchWindowTitled " + DIALOGS + " dialogs", latencies);
+        } finally {
+            invokeAndWait(frame::dispose);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.matchers.IndexMatcher;
+import org.kruijff.utilities.swing.matchers.NameMatcher;
+import org.kruijff.utilities.swing.metrics.JfrLookupListener;
+import org.kruijff.utilities.swing.metrics.LatencyHistogram;
+import org.kruijff.utilities.swing.metrics.LookupAggregator;
+import org.kruijff.utilities.swing.metrics.LookupStatistics;
+
+public class LookupMetricsTest {
+
+    private static final int TIMEOUT = 200;
+
+    private JPanel panel;
+    private List<LookupStatistics> statistics;
+    private LookupAggregator aggregator;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        for (int i = 0; i < 10; ++i) {
+            JLabel label = new JLabel("L" + i);
+            label.setName("label " + i);
+            panel.add(label);
+        }
+        statistics = new ArrayList<>();
+        aggregator = new LookupAggregator();
+        util = new SwingUtil(TIMEOUT).withListener(statistics::add).withListener(aggregator);
+    }
+
+    @After
+    public void teardown() {
+        panel = null;
+        statistics = null;
+        aggregator = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchChildNamed_Found() {
+        util.fetchChildNamed(panel, "label 4", JLabel.class);
+        assertEquals(1, statistics.size());
+        LookupStatistics s = statistics.get(0);
+        assertEquals("fetchChildNamed", s.getLookup());
+        assertEquals(NameMatcher.class, s.getMatcher());
+        assertEquals("label 4", s.getTarget());
+        assertTrue(s.isFound());
+        assertTrue(s.getAttempts() >= 1);
+        assertTrue(s.getNodesVisited() >= 5);
+        assertTrue(s.getTotalTime(TimeUnit.NANOSECONDS) >= s.getTraversalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void fetchChildIndexed_NotFound() {
+        try {
+            util.fetchChildIndexed(panel, 10, JLabel.class);
+        } catch (ChildNotFoundException ex) {
+            LookupStatistics s = statistics.get(0);
+            assertFalse(s.isFound());
+            assertTrue(s.getAttempts() >= 1);
+            assertEquals(10L * s.getAttempts(), s.getNodesVisited());
+            assertEquals(1, aggregator.getSummary(IndexMatcher.class).getTotalTime().getCount());
+            return;
+        }
+        throw new AssertionError("expected ChildNotFoundException");
+    }
+
+    @Test
+    public void histogram_Percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; ++i)
+            histogram.record(i * 1000L);
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500000, histogram.getPercentile(50), 500000 / 16);
+        assertEquals(990000, histogram.getPercentile(99), 990000 / 16);
+    }
+
+    @Test
+    public void jfr_EventPerFetch() throws Exception {
+        assumeTrue(JfrLookupListener.isAvailable());
+        Path file = Files.createTempFile("lookup", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.kruijff.swingutil.Lookup");
+            recording.start();
+            util.withListener(new JfrLookupListener()).fetchChildNamed(panel, "label 1", JLabel.class);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertEquals(1, events.size());
+        assertEquals("label 1", events.get(0).getString("target"));
+    }
+
+    @Test
+    public void jfr_EventSpansFetch() throws Exception {
+        assumeTrue(JfrLookupListener.isAvailable());
+        Path file = Files.createTempFile("lookup", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.kruijff.swingutil.Lookup");
+            recording.start();
+            try {
+                util.withListener(new JfrLookupListener()).fetchChildNamed(panel, "foo", JLabel.class);
+            } catch (ChildNotFoundException ex) {
+                assertEquals(1, statistics.size());
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertEquals(1, events.size());
+        assertFalse(events.get(0).getBoolean("found"));
+        assertTrue(events.get(0).getDuration().toMillis() >= TIMEOUT);
+    }
+}
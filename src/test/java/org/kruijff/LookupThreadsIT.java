@@ -0,0 +1,67 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.lang.reflect.Method;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.kruijff.utilities.swing.waiters.LookupScheduler;
+
+/**
+ * Runs against the packaged multi-release jar, so on Java 21 and later the
+ * Java 21 classes of the jar are the ones tested.
+ */
+public class LookupThreadsIT {
+
+    private static final int JAVA_21 = 21;
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private static int javaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return version.startsWith("1.") ? Integer.parseInt(version.substring(2)) : Integer.parseInt(version);
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        if (javaVersion() < JAVA_21)
+            return false;
+        Method isVirtual = Thread.class.getMethod("isVirtual");
+        return (Boolean) isVirtual.invoke(thread);
+    }
+    //</editor-fold>
+
+    @Test
+    public void submitBlocking_ThreadOfTheRuntime() throws Exception {
+        Thread thread = LookupScheduler.shared().submitBlocking(Thread::currentThread).get();
+        assertTrue(thread.isDaemon());
+        assertTrue(thread.getName().startsWith("swingutil-blocking-lookup"));
+        assertEquals(javaVersion() >= JAVA_21, isVirtual(thread));
+    }
+}
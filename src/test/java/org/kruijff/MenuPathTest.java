@@ -0,0 +1,193 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.Component;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.indexes.ComponentIndex;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class MenuPathTest {
+
+    private static final int TIMEOUT = 200;
+
+    private JPanel panel;
+    private JMenu export;
+    private JMenuItem pdf;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        JMenuBar bar = new JMenuBar();
+        JMenu file = new JMenu("File");
+        file.add(createMenuItem("open", "Open"));
+        export = new JMenu("Export");
+        pdf = createMenuItem("pdf", "PDF");
+        export.add(createMenuItem("png", "PNG"));
+        export.add(pdf);
+        file.add(export);
+        bar.add(new UntouchableMenu("Tools"));
+        bar.add(file);
+        panel.add(bar);
+        panel.add(createLabel("label A", "LA"));
+        util = new SwingUtil(TIMEOUT).withTreeDumper(null);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private JMenuItem createMenuItem(String name, String text) {
+        JMenuItem item = new JMenuItem(text);
+        item.setName(name);
+        return item;
+    }
+
+    /**
+     * A menu whose items must not be looked at. The tree dump of a failed
+     * lookup does look at them, so the tests run without dumps.
+     */
+    private static class UntouchableMenu
+            extends JMenu {
+
+        private static final long serialVersionUID = 1L;
+
+        private UntouchableMenu(String text) {
+            super(text);
+            add(new JMenuItem("Hidden"));
+        }
+
+        @Override
+        public int getMenuComponentCount() {
+            throw new AssertionError("items of " + getText() + " were touched");
+        }
+
+        @Override
+        public Component getMenuComponent(int n) {
+            throw new AssertionError("items of " + getText() + " were touched");
+        }
+
+        @Override
+        public Component[] getMenuComponents() {
+            throw new AssertionError("items of " + getText() + " were touched");
+        }
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        export = null;
+        pdf = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchMenuItem_Path() {
+        assertSame(pdf, util.fetchMenuItem(panel, "File", "Export", "PDF"));
+    }
+
+    @Test
+    public void fetchMenuItem_TopLevelMenu() {
+        assertEquals("File", util.fetchMenuItem(panel, "File").getText());
+    }
+
+    @Test
+    public void fetchMenuItem_ItemDoesNotExist() {
+        try {
+            util.fetchMenuItem(panel, "File", "Export", "SVG");
+        } catch (ChildNotFoundException ex) {
+            assertEquals("path = File > Export > SVG, no item 'SVG' in File > Export", ex.getMessage());
+            return;
+        }
+        fail("expected ChildNotFoundException");
+    }
+
+    @Test
+    public void fetchMenuItem_ItemIsNotAMenu() {
+        try {
+            util.fetchMenuItem(panel, "File", "Open", "PDF");
+        } catch (ChildNotFoundException ex) {
+            assertEquals("path = File > Open > PDF, no menu 'Open' in File", ex.getMessage());
+            return;
+        }
+        fail("expected ChildNotFoundException");
+    }
+
+    @Test
+    public void fetchMenuItem_FirstMenuDoesNotExist() {
+        try {
+            util.fetchMenuItem(panel, "Edit", "Undo");
+        } catch (ChildNotFoundException ex) {
+            assertEquals("path = Edit > Undo, no menu 'Edit'", ex.getMessage());
+            return;
+        }
+        fail("expected ChildNotFoundException");
+    }
+
+    @Test
+    public void fetchMenuItem_ItemAddedLater() {
+        SwingUtil util = new SwingUtil(new AwtEventWaiter(TIMEOUT)).withTreeDumper(null);
+        JMenuItem svg = createMenuItem("svg", "SVG");
+        new Thread(() -> export.add(svg)).start();
+        assertSame(svg, util.fetchMenuItem(panel, "File", "Export", "SVG"));
+    }
+
+    @Test
+    public void excludingMenus_FetchChildNamed() {
+        assertEquals("LA", util.excludingMenus().fetchChildNamed(panel, "label A", JLabel.class).getText());
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void excludingMenus_MenuItemNotFound() {
+        util.excludingMenus().fetchChildNamed(panel, "pdf", JMenuItem.class);
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void excludingMenus_MenuItemNotFoundInIndex() {
+        panel.remove(0);
+        JMenu menu = new JMenu("File");
+        menu.add(createMenuItem("open", "Open"));
+        panel.add(menu);
+        SwingUtil util = new SwingUtil(new AwtEventWaiter(TIMEOUT), new ComponentIndex().add(panel)).withTreeDumper(null);
+        util.excludingMenus().fetchChildNamed(panel, "open", JMenuItem.class);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.indexes.PathCache;
+import org.kruijff.utilities.swing.metrics.LookupStatistics;
+
+public class PathCacheTest {
+
+    private static final int TIMEOUT = 200;
+    private static final int PANELS = 50;
+
+    private JPanel panel;
+    private JPanel last;
+    private List<LookupStatistics> statistics;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        for (int i = 0; i < PANELS; ++i) {
+            last = new JPanel();
+            for (int j = 0; j < 10; ++j)
+                last.add(createLabel("label " + i + "." + j, "L" + i + "." + j));
+            panel.add(last);
+        }
+        statistics = new ArrayList<>();
+        util = new SwingUtil(TIMEOUT).withPathCache(new PathCache()).withListener(statistics::add);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private long lastNodesVisited() {
+        return statistics.get(statistics.size() - 1).getNodesVisited();
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        last = null;
+        statistics = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchChildNamed_SecondLookupFollowsPath() {
+        String name = "label " + (PANELS - 1) + ".9";
+        JLabel label = util.fetchChildNamed(panel, name, JLabel.class);
+        assertTrue(lastNodesVisited() > PANELS * 10);
+        assertSame(label, util.fetchChildNamed(panel, name, JLabel.class));
+        assertEquals(0, lastNodesVisited());
+    }
+
+    @Test
+    public void fetchChildNamed_PathNoLongerMatches() {
+        String name = "label " + (PANELS - 1) + ".9";
+        util.fetchChildNamed(panel, name, JLabel.class);
+        last.remove(9);
+        JLabel moved = createLabel(name, "moved");
+        panel.add(moved, 0);
+        assertSame(moved, util.fetchChildNamed(panel, name, JLabel.class));
+        assertEquals(1, lastNodesVisited());
+    }
+}
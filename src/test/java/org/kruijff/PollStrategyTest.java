@@ -0,0 +1,167 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.concurrent.TimeUnit;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.SwingUtil.PollStrategy;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.polling.CostAdaptivePollStrategy;
+import org.kruijff.utilities.swing.polling.ExponentialPollStrategy;
+import org.kruijff.utilities.swing.polling.FibonacciPollStrategy;
+import org.kruijff.utilities.swing.polling.FixedPollStrategy;
+import org.kruijff.utilities.swing.polling.ImmediateFirstPollStrategy;
+import org.kruijff.utilities.swing.polling.RemainingTimeCappedPollStrategy;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class PollStrategyTest {
+
+    private static final int TIMEOUT = 1000;
+    private static final int INTERVAL = 500;
+
+    private JPanel panel;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        JLabel label = new JLabel("LA");
+        label.setName("label A");
+        panel.add(label);
+    }
+
+    @After
+    public void teardown() {
+        panel = null;
+    }
+
+    @Test
+    public void fibonacci() {
+        PollStrategy strategy = new FibonacciPollStrategy(1, NANOSECONDS);
+        long[] expected = {1, 1, 2, 3, 5, 8, 13};
+        for (int i = 0; i < expected.length; ++i)
+            assertEquals(expected[i], strategy.nextDelay(i, 0, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, new FibonacciPollStrategy(1, TimeUnit.DAYS).nextDelay(1000, 0, Long.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fibonacci_ZeroInterval() {
+        new FibonacciPollStrategy(0, NANOSECONDS);
+    }
+
+    @Test
+    public void exponential() {
+        PollStrategy strategy = new ExponentialPollStrategy(10, 2, 50, NANOSECONDS);
+        assertEquals(10, strategy.nextDelay(0, 0, Long.MAX_VALUE));
+        assertEquals(40, strategy.nextDelay(2, 0, Long.MAX_VALUE));
+        assertEquals(50, strategy.nextDelay(3, 0, Long.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void exponential_ZeroInitial() {
+        new ExponentialPollStrategy(0, 2, 50, NANOSECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void exponential_MaximumBelowInitial() {
+        new ExponentialPollStrategy(10, 2, 5, NANOSECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fixed_ZeroInterval() {
+        new FixedPollStrategy(0, NANOSECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fixed_NegativeInterval() {
+        new FixedPollStrategy(-1, MILLISECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void costAdaptive_NegativeFactor() {
+        new CostAdaptivePollStrategy(new FixedPollStrategy(100, NANOSECONDS), -1);
+    }
+
+    @Test
+    public void decorators() {
+        PollStrategy fixed = new FixedPollStrategy(100, NANOSECONDS);
+        assertEquals(0, new ImmediateFirstPollStrategy(fixed).nextDelay(0, 0, 1000));
+        assertEquals(100, new ImmediateFirstPollStrategy(fixed).nextDelay(1, 0, 1000));
+        assertEquals(MILLISECONDS.toNanos(50), new RemainingTimeCappedPollStrategy(new FixedPollStrategy(100, MILLISECONDS), 0.5)
+                .nextDelay(3, 0, MILLISECONDS.toNanos(100)));
+        assertEquals(400, new CostAdaptivePollStrategy(fixed, 4).nextDelay(3, 100, 1000));
+    }
+
+    @Test
+    public void remainingTimeCapped_NearTimeout() {
+        PollStrategy fixed = new FixedPollStrategy(INTERVAL, MILLISECONDS);
+        assertEquals(MILLISECONDS.toNanos(1), new RemainingTimeCappedPollStrategy(fixed, 0.5).nextDelay(3, 0, 10));
+        assertEquals(0, new RemainingTimeCappedPollStrategy(new ImmediateFirstPollStrategy(fixed), 0.5).nextDelay(0, 0, 10));
+    }
+
+    @Test
+    public void immediateFirstTry() {
+        PollStrategy strategy = new ImmediateFirstPollStrategy(new FixedPollStrategy(INTERVAL, MILLISECONDS));
+        SwingUtil util = new SwingUtil(TIMEOUT, MILLISECONDS, strategy);
+        long start = System.nanoTime();
+        util.fetchChildNamed(panel, "label A", JLabel.class);
+        assertTrue(NANOSECONDS.toMillis(System.nanoTime() - start) < INTERVAL);
+    }
+
+    @Test
+    public void immediateFirstTry_PerCallOnAwaitility() {
+        PollStrategy strategy = new ImmediateFirstPollStrategy(new FixedPollStrategy(INTERVAL, MILLISECONDS));
+        SwingUtil util = new SwingUtil(TIMEOUT).withPollStrategy(strategy);
+        long start = System.nanoTime();
+        util.fetchChildNamed(panel, "label A", JLabel.class);
+        assertTrue(NANOSECONDS.toMillis(System.nanoTime() - start) < INTERVAL);
+    }
+
+    @Test
+    public void withPollStrategy_IgnoredByAwtEventWaiter() {
+        PollStrategy strategy = new FixedPollStrategy(INTERVAL, MILLISECONDS);
+        SwingUtil util = new SwingUtil(new AwtEventWaiter(TIMEOUT)).withPollStrategy(strategy);
+        assertEquals("LA", util.fetchChildNamed(panel, "label A", JLabel.class).getText());
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void timeout() {
+        PollStrategy strategy = new FibonacciPollStrategy(10, MILLISECONDS);
+        new SwingUtil(100, MILLISECONDS, strategy).fetchChildNamed(panel, "foo", JLabel.class);
+    }
+}
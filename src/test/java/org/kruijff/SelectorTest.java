@@ -0,0 +1,160 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.exceptions.SelectorSyntaxException;
+import org.kruijff.utilities.swing.selectors.Selector;
+
+public class SelectorTest {
+
+    private static final int TIMEOUT = 200;
+
+    private JPanel panel;
+    private JPanel form;
+    private JButton ok;
+    private JButton cancel;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        form = createPanel("form");
+        ok = createButton("ok", "OK");
+        cancel = createButton("cancel", "Cancel");
+        JPanel buttons = createPanel("buttons");
+        buttons.add(ok);
+        buttons.add(cancel);
+        form.add(createLabel("label A", "LA"));
+        form.add(buttons);
+        panel.add(form);
+        util = new SwingUtil(TIMEOUT);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private JPanel createPanel(String name) {
+        JPanel p = new JPanel();
+        p.setName(name);
+        return p;
+    }
+
+    private JButton createButton(String name, String text) {
+        JButton button = new JButton(text);
+        button.setName(name);
+        return button;
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        form = null;
+        ok = null;
+        cancel = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchSelected_TypeAndText() {
+        assertSame(cancel, util.fetchSelected(panel, "JButton[text='Cancel']", JButton.class));
+    }
+
+    @Test
+    public void fetchSelected_Descendant() {
+        assertSame(ok, util.fetchSelected(panel, "JPanel[name='form'] JButton", JButton.class));
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void fetchSelected_ChildAxis() {
+        util.fetchSelected(panel, "JPanel[name='form'] > JButton", JButton.class);
+    }
+
+    @Test
+    public void fetchSelected_ChildAxisChain() {
+        assertSame(cancel, util.fetchSelected(panel, "[name='form'] > [name='buttons'] > [name$='cel']", JButton.class));
+    }
+
+    @Test
+    public void fetchSelected_Nth() {
+        assertSame(cancel, util.fetchSelected(panel, "JButton:nth(1)", JButton.class));
+    }
+
+    @Test
+    public void fetchSelected_Anchored() {
+        assertSame(form, util.fetchSelected(panel, "> JPanel", JPanel.class));
+        try {
+            util.fetchSelected(panel, "> JButton", JButton.class);
+            fail("Expected ChildNotFoundException");
+        } catch (ChildNotFoundException ex) {
+            assertEquals("selector = > JButton", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void fetchSelected_Enabled() {
+        ok.setEnabled(false);
+        assertSame(cancel, util.fetchSelected(panel, "JButton:enabled", JButton.class));
+    }
+
+    @Test
+    public void compile_Cached() {
+        assertSame(Selector.compile("JPanel JButton"), Selector.compile("JPanel JButton"));
+    }
+
+    @Test
+    public void compile_CacheIsBounded() {
+        Selector selector = Selector.compile("JPanel JLabel");
+        for (int i = 0; i < 1000; ++i)
+            Selector.compile("JLabel[name='label " + i + "']");
+        assertNotSame(selector, Selector.compile("JPanel JLabel"));
+    }
+
+    @Test
+    public void compile_SyntaxError() {
+        try {
+            Selector.compile("JButton[text~='OK']");
+            fail("Expected SelectorSyntaxException");
+        } catch (SelectorSyntaxException ex) {
+            assertEquals(12, ex.getPosition());
+        }
+    }
+}
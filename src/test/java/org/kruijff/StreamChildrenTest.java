@@ -0,0 +1,126 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.matchers.IndexMatcher;
+
+public class StreamChildrenTest {
+
+    private static final int TIMEOUT = 200;
+    private static final int PANELS = 100;
+    private static final int LABELS = 100;
+
+    private JPanel panel;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        for (int i = 0; i < PANELS; ++i) {
+            JPanel inner = new JPanel();
+            for (int j = 0; j < LABELS; ++j)
+                inner.add(createLabel("label " + i + "." + j, "L" + (i * LABELS + j)));
+            inner.add(new JButton("B" + i));
+            panel.add(inner);
+        }
+        util = new SwingUtil(TIMEOUT);
+    }
+
+    @After
+    public void teardown() {
+        panel = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchAll_DepthFirstOrder() {
+        List<JButton> buttons = util.fetchAll(panel, JButton.class);
+        assertEquals(PANELS, buttons.size());
+        for (int i = 0; i < PANELS; ++i)
+            assertEquals("B" + i, buttons.get(i).getText());
+    }
+
+    @Test
+    public void streamChildren_StopsEarly() {
+        AtomicInteger visited = new AtomicInteger();
+        JLabel label = util.streamChildren(panel, c -> visited.incrementAndGet() > 0 && c instanceof JLabel)
+                .map(JLabel.class::cast)
+                .findFirst()
+                .get();
+        assertEquals("L0", label.getText());
+        assertEquals(2, visited.get());
+    }
+
+    @Test
+    public void streamChildren_IndexMatcher() {
+        JLabel label = util.streamChildren(panel, new IndexMatcher<>(LABELS + 1, JLabel.class)).findFirst().get();
+        assertSame(util.fetchChildIndexed(panel, LABELS + 1, JLabel.class), label);
+    }
+
+    @Test
+    public void streamChildren_IndexMatcherParallel() {
+        JLabel label = util.streamChildren(panel, new IndexMatcher<>(LABELS + 1, JLabel.class)).parallel().findFirst().get();
+        assertSame(util.fetchChildIndexed(panel, LABELS + 1, JLabel.class), label);
+    }
+
+    @Test
+    public void streamChildren_Parallel() {
+        List<String> sequential = util.streamChildren(panel, JLabel.class::isInstance)
+                .map(c -> ((JLabel) c).getText())
+                .collect(Collectors.toList());
+        List<String> parallel = util.streamChildren(panel, JLabel.class::isInstance)
+                .parallel()
+                .map(c -> ((JLabel) c).getText())
+                .collect(Collectors.toList());
+        assertEquals(PANELS * LABELS, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void streamChildren_ParallelSingleChild() {
+        JPanel root = new JPanel();
+        root.add(panel);
+        long count = util.streamChildren(root, c -> true).parallel().count();
+        assertEquals(1 + PANELS * (LABELS + 2), count);
+    }
+}
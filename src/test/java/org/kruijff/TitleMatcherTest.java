@@ -0,0 +1,79 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.Frame;
+import javax.swing.JInternalFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+import org.kruijff.utilities.swing.matchers.TitleMatcher;
+
+public class TitleMatcherTest {
+
+    private static final String TITLE = "title";
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private static class TitledPanel
+            extends JPanel {
+
+        private static final long serialVersionUID = 1L;
+
+        public String getTitle() {
+            return TITLE;
+        }
+    }
+    //</editor-fold>
+
+    @Test
+    public void titleOf_InternalFrame() {
+        assertEquals(TITLE, TitleMatcher.titleOf(new JInternalFrame(TITLE)));
+    }
+
+    @Test
+    public void titleOf_NonPublicClass() {
+        assertEquals(TITLE, TitleMatcher.titleOf(new TitledPanel()));
+    }
+
+    @Test
+    public void titleOf_NoTitle() {
+        assertNull(TitleMatcher.titleOf(new JLabel(TITLE)));
+    }
+
+    @Test
+    public void equals_TitleAndType() {
+        assertEquals(new TitleMatcher<>(TITLE, Frame.class), new TitleMatcher<>(TITLE, Frame.class));
+        assertEquals(new TitleMatcher<>(TITLE, Frame.class).hashCode(), new TitleMatcher<>(TITLE, Frame.class).hashCode());
+        assertNotEquals(new TitleMatcher<>(TITLE, Frame.class), new TitleMatcher<>("other", Frame.class));
+    }
+}
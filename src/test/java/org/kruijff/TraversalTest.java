@@ -0,0 +1,142 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.matchers.IndexMatcher;
+
+public class TraversalTest {
+
+    private static final int TIMEOUT = 200;
+    private static final int DEPTH = 10000;
+    private static final int THREADS = 8;
+
+    private JPanel panel;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        util = new SwingUtil(TIMEOUT);
+    }
+
+    @After
+    public void teardown() {
+        panel = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchChildNamed_VeryDeepTree() {
+        JPanel node = panel;
+        for (int i = 0; i < DEPTH; ++i) {
+            JPanel child = new JPanel();
+            node.add(child);
+            node = child;
+        }
+        node.add(createLabel("deep", "D"));
+        assertEquals("D", util.fetchChildNamed(panel, "deep", JLabel.class).getText());
+    }
+
+    @Test
+    public void fetchChildIndexed_DepthFirstOrder() {
+        JPanel first = new JPanel();
+        first.add(createLabel("label A", "LA"));
+        first.add(createLabel("label B", "LB"));
+        panel.add(first);
+        panel.add(createLabel("label C", "LC"));
+        assertEquals("LA", util.fetchChildIndexed(panel, 0, JLabel.class).getText());
+        assertEquals("LB", util.fetchChildIndexed(panel, 1, JLabel.class).getText());
+        assertEquals("LC", util.fetchChildIndexed(panel, 2, JLabel.class).getText());
+    }
+
+    @Test
+    public void fetchChildNamed_MenuItem() {
+        JMenu menu = new JMenu("File");
+        JMenuItem item = new JMenuItem("Open");
+        item.setName("open");
+        menu.add(item);
+        panel.add(menu);
+        assertSame(item, util.fetchChildNamed(panel, "open", JMenuItem.class));
+    }
+
+    @Test
+    public void indexMatcher_Stateless() {
+        panel.add(createLabel("label A", "LA"));
+        panel.add(createLabel("label B", "LB"));
+        IndexMatcher<JLabel> matcher = new IndexMatcher<>(1, JLabel.class);
+        assertEquals("LB", util.streamChildren(panel, matcher).findFirst().get().getText());
+        assertEquals("LB", util.streamChildren(panel, matcher).findFirst().get().getText());
+    }
+
+    @Test
+    public void indexMatcher_WithoutContext() {
+        IndexMatcher<JLabel> matcher = new IndexMatcher<>(1, JLabel.class);
+        JLabel label = createLabel("label A", "LA");
+        assertFalse(matcher.childMatches(label));
+        assertTrue(matcher.childMatches(label));
+        assertFalse(matcher.childMatches(label));
+    }
+
+    @Test
+    public void fetchChildIndexed_SharedBetweenThreads() throws Exception {
+        for (int i = 0; i < 100; ++i)
+            panel.add(createLabel("label " + i, "L" + i));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS * 10; ++i) {
+                int index = i % 100;
+                futures.add(executor.submit(() -> util.fetchChildIndexed(panel, index, JLabel.class).getText()));
+            }
+            for (int i = 0; i < futures.size(); ++i)
+                assertEquals("L" + i % 100, futures.get(i).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import static javax.swing.SwingUtilities.invokeAndWait;
+import static javax.swing.SwingUtilities.invokeLater;
+import org.awaitility.core.ConditionTimeoutException;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.TreeDump;
+import org.kruijff.utilities.swing.TreeDumper;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.polling.FixedPollStrategy;
+
+public class TreeDumpTest {
+
+    private static final int DELAY = 50;
+    private static final int TIMEOUT = 300;
+
+    private JPanel panel;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        panel.setName("panel");
+        panel.add(createLabel("label A", "LA"));
+        util = new SwingUtil(TIMEOUT, TimeUnit.MILLISECONDS, new FixedPollStrategy(10, TimeUnit.MILLISECONDS))
+                .withTreeDumper(new TreeDumper());
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private void removeFirst() {
+        try {
+            invokeAndWait(() -> panel.remove(0));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        panel = null;
+        util = null;
+    }
+
+    @Test
+    public void fetchChildNamed_DumpAttached() {
+        try {
+            util.fetchChildNamed(panel, "foo", JLabel.class);
+            fail("Expected ChildNotFoundException");
+        } catch (ChildNotFoundException ex) {
+            assertTrue(ex.getCause() instanceof ConditionTimeoutException);
+            assertEquals("javax.swing.JPanel name='panel' undisplayable\n"
+                         + "  javax.swing.JLabel name='label A' text='LA' undisplayable", ex.getTreeDump());
+            assertFalse(ex.toString().contains("javax.swing.JLabel"));
+        }
+    }
+
+    @Test
+    public void fetchChildIndexed_CauseKept() {
+        try {
+            util.withTreeDumper(null).fetchChildIndexed(panel, 1, JLabel.class);
+            fail("Expected ChildNotFoundException");
+        } catch (ChildNotFoundException ex) {
+            assertTrue(ex.getCause() instanceof ConditionTimeoutException);
+            assertNull(ex.getTreeDump());
+        }
+    }
+
+    @Test
+    public void fetchChildNamed_NoDumpByDefault() {
+        try {
+            new SwingUtil(TIMEOUT).fetchChildNamed(panel, "foo", JLabel.class);
+            fail("Expected ChildNotFoundException");
+        } catch (ChildNotFoundException ex) {
+            assertNull(ex.getTreeDump());
+        }
+    }
+
+    @Test
+    public void dump_EventDispatchThreadBusy() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        invokeLater(() -> {
+            busy.countDown();
+            await(release);
+        });
+        busy.await();
+        try {
+            TreeDump dump = new TreeDumper(100, 10000, false, DELAY, TimeUnit.MILLISECONDS).dump(panel);
+            assertTrue(dump.isTruncated());
+            assertEquals("... unavailable after 0 nodes, the event dispatch thread did not respond within 50 ms",
+                         dump.getLines().get(0));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void fetchChildNamed_ChangesWhileWaiting() {
+        new Thread(() -> {
+            try {
+                Thread.sleep(DELAY);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            invokeLater(() -> panel.add(createLabel("label B", "LB")));
+        }).start();
+        try {
+            util.withTreeDumper(new TreeDumper(100, 10000, true)).fetchChildNamed(panel, "foo", JLabel.class);
+            fail("Expected ChildNotFoundException");
+        } catch (ChildNotFoundException ex) {
+            assertTrue(ex.getTreeDump(), ex.getTreeDump().endsWith("changed while waiting:\n+ javax.swing.JLabel name='label B' text='LB' undisplayable"));
+        }
+    }
+
+    @Test
+    public void dump_Bounded() throws Exception {
+        for (int i = 0; i < 1000; ++i)
+            panel.add(createLabel("label " + i, "L" + i));
+        TreeDump dump = new TreeDumper(10, 10000, false).dump(panel);
+        assertTrue(dump.isTruncated());
+        assertEquals(11, dump.getLines().size());
+        assertEquals("... truncated after 10 nodes", dump.getLines().get(10));
+
+        StringWriter out = new StringWriter();
+        new TreeDumper(10000, 200, false).dump(panel, out);
+        assertTrue(out.toString(), out.toString().length() < 400);
+    }
+
+    @Test
+    public void dump_TreeChanged() throws Exception {
+        for (int i = 0; i < 300; ++i)
+            panel.add(createLabel("label " + i, "L" + i));
+        StringWriter out = new StringWriter() {
+            @Override
+            public StringWriter append(CharSequence line) {
+                if (line.toString().contains("name='label 0'"))
+                    removeFirst();
+                return super.append(line);
+            }
+        };
+        new TreeDumper(10000, 100000, false).dump(panel, out);
+        assertTrue(out.toString(), out.toString().endsWith("... stopped after 257 nodes, the tree changed while it was dumped\n"));
+    }
+
+    @Test
+    public void dump_Complete() {
+        TreeDump dump = new TreeDumper().dump(panel);
+        assertFalse(dump.isTruncated());
+        assertEquals(2, dump.getLines().size());
+    }
+}
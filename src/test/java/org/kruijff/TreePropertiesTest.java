@@ -0,0 +1,160 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.GraphicsEnvironment;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import static javax.swing.SwingUtilities.invokeAndWait;
+import static org.awaitility.Awaitility.await;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import org.kruijff.utilities.swing.TreeProperties;
+
+public class TreePropertiesTest {
+
+    private static final String NAME = "name";
+    private static final int DEPTH = 10000;
+    private static final int GC_ATTEMPTS = 10;
+
+    private JPanel panel;
+    private AtomicInteger changes;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        changes = new AtomicInteger();
+    }
+
+    @After
+    public void teardown() {
+        panel = null;
+        changes = null;
+    }
+
+    @Test
+    public void changesOf_VeryDeepTree() throws Exception {
+        JPanel node = panel;
+        for (int i = 0; i < DEPTH; ++i) {
+            JPanel child = new JPanel();
+            node.add(child);
+            node = child;
+        }
+        JLabel label = createLabel("deep", "D");
+        node.add(label);
+        int listeners = label.getPropertyChangeListeners(NAME).length;
+        Runnable unsubscribe = TreeProperties.changesOf(panel, NAME).subscribe(changes::incrementAndGet);
+        try {
+            await().until(() -> label.getPropertyChangeListeners(NAME).length > listeners);
+            invokeAndWait(() -> {});
+            int before = changes.get();
+            invokeAndWait(() -> label.setName("renamed"));
+            assertEquals(before + 1, changes.get());
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    @Test
+    public void changesOf_RemovedComponent() throws Exception {
+        JLabel label = createLabel("label A", "LA");
+        panel.add(label);
+        int listeners = label.getPropertyChangeListeners(NAME).length;
+        Runnable unsubscribe = TreeProperties.changesOf(panel, NAME).subscribe(changes::incrementAndGet);
+        try {
+            assertEquals(listeners + 1, label.getPropertyChangeListeners(NAME).length);
+            invokeAndWait(() -> panel.remove(label));
+            assertEquals(listeners, label.getPropertyChangeListeners(NAME).length);
+            invokeAndWait(() -> label.setName("renamed"));
+            assertEquals(0, changes.get());
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    @Test
+    public void changesOf_AddedComponent() throws Exception {
+        Runnable unsubscribe = TreeProperties.changesOf(panel, NAME).subscribe(changes::incrementAndGet);
+        try {
+            JLabel label = createLabel("label A", "LA");
+            invokeAndWait(() -> panel.add(label));
+            int added = changes.get();
+            invokeAndWait(() -> label.setName("renamed"));
+            assertEquals(added + 1, changes.get());
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    @Test
+    public void changesOf_RootCollected() throws Exception {
+        panel.add(createLabel("label A", "LA"));
+        TreeProperties.changesOf(panel, NAME).subscribe(changes::incrementAndGet);
+        WeakReference<JPanel> root = new WeakReference<>(panel);
+        panel = null;
+        for (int i = 0; i < GC_ATTEMPTS && root.get() != null; ++i) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertNull(root.get());
+    }
+
+    @Test
+    public void changesOf_OwnedWindowOpenedLater() throws Exception {
+        assumeFalse(GraphicsEnvironment.isHeadless());
+        JFrame frame = new JFrame();
+        Runnable unsubscribe = TreeProperties.changesOf(frame, NAME).subscribe(changes::incrementAndGet);
+        try {
+            JDialog dialog = new JDialog(frame);
+            JLabel label = createLabel("label A", "LA");
+            invokeAndWait(() -> {
+                dialog.add(label);
+                dialog.setVisible(true);
+            });
+            invokeAndWait(() -> label.setName("renamed"));
+            assertTrue(changes.get() > 0);
+            invokeAndWait(dialog::dispose);
+        } finally {
+            unsubscribe.run();
+            invokeAndWait(frame::dispose);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.Scrollable;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.kruijff.TestComponents.createLabel;
+import static org.kruijff.TestComponents.createPopuplessMenu;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.indexes.TypeSummary;
+import org.kruijff.utilities.swing.metrics.LookupStatistics;
+
+public class TypeSummaryTest {
+
+    private static final int TIMEOUT = 200;
+    private static final int PANELS = 100;
+
+    private JPanel panel;
+    private JPanel first;
+    private JPanel last;
+    private TypeSummary summary;
+
+    @Before
+    public void setup() {
+        panel = new JPanel();
+        for (int i = 0; i < PANELS; ++i) {
+            last = new JPanel();
+            for (int j = 0; j < 10; ++j)
+                last.add(createLabel("label " + i + " " + j, "L"));
+            panel.add(last);
+        }
+        first = (JPanel) panel.getComponent(0);
+        summary = new TypeSummary().add(panel);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private JTable createTable(String name) {
+        JTable table = new JTable(1, 1);
+        table.setName(name);
+        return table;
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        summary.remove(panel);
+        panel = null;
+        first = null;
+        last = null;
+        summary = null;
+    }
+
+    @Test
+    public void mayContain() {
+        last.add(createTable("table"));
+        assertTrue(summary.mayContain(panel, JTable.class));
+        assertTrue(summary.mayContain(last, JTable.class));
+        assertFalse(summary.mayContain(first, JTable.class));
+        assertTrue(summary.mayContain(first, JLabel.class));
+    }
+
+    @Test
+    public void mayContain_ChildRemoved() {
+        JTable table = createTable("table");
+        last.add(table);
+        last.remove(table);
+        assertFalse(summary.mayContain(last, JTable.class));
+        assertFalse(summary.mayContain(panel, JTable.class));
+    }
+
+    @Test
+    public void mayContain_SubtreeAdded() {
+        JPanel inner = new JPanel();
+        inner.add(createTable("table"));
+        first.add(inner);
+        assertTrue(summary.mayContain(first, JTable.class));
+        assertTrue(summary.mayContain(inner, JTable.class));
+    }
+
+    @Test
+    public void mayContain_MenuItem() {
+        JMenu menu = new JMenu("File");
+        first.add(menu);
+        assertFalse(summary.mayContain(first, JCheckBoxMenuItem.class));
+        menu.add(new JCheckBoxMenuItem("Bold"));
+        assertTrue(summary.mayContain(menu, JCheckBoxMenuItem.class));
+        assertTrue(summary.mayContain(first, JCheckBoxMenuItem.class));
+        assertFalse(summary.mayContain(last, JCheckBoxMenuItem.class));
+    }
+
+    @Test
+    public void mayContain_EmptyMenuKeepsItsPopup() {
+        first.add(createPopuplessMenu("Edit"));
+        assertFalse(summary.mayContain(first, JCheckBoxMenuItem.class));
+        first.removeAll();
+    }
+
+    @Test
+    public void mayContain_WhileSummaryIsUpdated() throws Exception {
+        last.add(createTable("table"));
+        synchronized (summary) {
+            CompletableFuture<Boolean> answer = CompletableFuture.supplyAsync(() -> summary.mayContain(last, JTable.class));
+            assertTrue(answer.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void mayContain_InterfacesAndComponentsOutsideTheTree() {
+        assertTrue(summary.mayContain(first, Scrollable.class));
+        assertTrue(summary.mayContain(new JPanel(), JTable.class));
+    }
+
+    @Test
+    public void fetchChildNamed_SkipsSubtreesWithoutTheType() {
+        JTable table = createTable("table");
+        last.add(table);
+        List<LookupStatistics> statistics = new ArrayList<>();
+        SwingUtil util = new SwingUtil(TIMEOUT).withTypeSummary(summary).withListener(statistics::add);
+        assertSame(table, util.fetchChildNamed(panel, "table", JTable.class));
+        assertTrue("visited " + statistics.get(0).getNodesVisited(), statistics.get(0).getNodesVisited() < 2 * PANELS);
+    }
+
+    @Test
+    public void fetchChildIndexed_CountsOnlyTheType() {
+        first.add(createTable("table A"));
+        last.add(createTable("table B"));
+        SwingUtil util = new SwingUtil(TIMEOUT).withTypeSummary(summary);
+        assertEquals("table B", util.fetchChildIndexed(panel, 1, JTable.class).getName());
+    }
+}
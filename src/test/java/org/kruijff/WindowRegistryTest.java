@@ -0,0 +1,116 @@
+/*
+ * Copyright Alex de Kruijff {@literal <swingutil@akruijff.dds.nl>}
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.kruijff;
+
+import java.awt.GraphicsEnvironment;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import static javax.swing.JOptionPane.PLAIN_MESSAGE;
+import static javax.swing.JOptionPane.showMessageDialog;
+import static javax.swing.SwingUtilities.invokeLater;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import org.junit.Before;
+import org.junit.Test;
+import org.kruijff.utilities.swing.SwingUtil;
+import org.kruijff.utilities.swing.exceptions.ChildNotFoundException;
+import org.kruijff.utilities.swing.indexes.WindowRegistry;
+import org.kruijff.utilities.swing.waiters.AwtEventWaiter;
+
+public class WindowRegistryTest {
+
+    private static final int TIMEOUT = 1000;
+
+    private JFrame frame;
+    private WindowRegistry registry;
+    private SwingUtil util;
+
+    @Before
+    public void setup() {
+        assumeFalse(GraphicsEnvironment.isHeadless());
+        registry = new WindowRegistry().start();
+        frame = new JFrame();
+        util = new SwingUtil(new AwtEventWaiter(TIMEOUT)).withWindowRegistry(registry);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Helper methods for setup">
+    private void showDialogLater(String title) {
+        invokeLater(() -> showMessageDialog(frame, "Hallo", title, PLAIN_MESSAGE));
+    }
+    //</editor-fold>
+
+    @After
+    public void teardown() {
+        if (registry != null)
+            registry.stop();
+        frame = null;
+        registry = null;
+        util = null;
+    }
+
+    @Test(expected = ChildNotFoundException.class)
+    public void fetchWindowTitled_ChildDoesNotExist() {
+        util.fetchWindowTitled(frame, "Title A", JDialog.class);
+    }
+
+    @Test
+    public void fetchWindowTitled_ChildOpenedLater() {
+        showDialogLater("Title A");
+        JDialog dialog = util.fetchWindowTitled(frame, "Title A", JDialog.class);
+        assertEquals("Title A", dialog.getTitle());
+    }
+
+    @Test
+    public void fetchWindowTitled_TitleChanged() {
+        showDialogLater("Title A");
+        JDialog dialog = util.fetchWindowTitled(frame, "Title A", JDialog.class);
+        invokeLater(() -> dialog.setTitle("Title B"));
+        util = new SwingUtil(TIMEOUT).withWindowRegistry(registry);
+        assertEquals(dialog, util.fetchWindowTitled(frame, "Title B", JDialog.class));
+        assertTrue(registry.titled(frame, "Title A", JDialog.class).isEmpty());
+    }
+
+    @Test
+    public void fetchWindowIndexed_ChildOpenedLater() {
+        showDialogLater("Title A");
+        JDialog dialog = util.fetchWindowIndexed(frame, 0, JDialog.class);
+        assertEquals("Title A", dialog.getTitle());
+    }
+
+    @Test
+    public void titled_DisposedWindowDropped() {
+        showDialogLater("Title A");
+        JDialog dialog = util.fetchWindowTitled(frame, "Title A", JDialog.class);
+        dialog.dispose();
+        assertTrue(registry.titled(frame, "Title A", JDialog.class).isEmpty());
+    }
+}